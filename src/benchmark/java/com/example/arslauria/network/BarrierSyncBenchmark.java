@@ -0,0 +1,280 @@
+package com.example.arslauria.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToByteEncoder;
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Офлайн-бенчмарк сетевой нагрузки синхронизации барьеров (без сервера и клиента Minecraft).
+ *
+ * Гоняет {@link BarrierSyncPacket#encode}/{@link BarrierSyncPacket#decode} через пары Netty
+ * {@link EmbeddedChannel} для N симулированных игроков и M сущностей с барьером по скриптовому
+ * таймлайну урона и печатает байты/тик, сообщения/тик и время кодирования.
+ *
+ * Запуск: {@code ./gradlew runNetworkBenchmark --args="--players 20 --entities 50 --ticks 1200"}
+ * (отдельный source set {@code benchmark} — в jar мода не попадает).
+ *
+ * Параметры:
+ *  --players N     число симулированных соединений (все отслеживают все сущности)
+ *  --entities M    число сущностей с барьером
+ *  --ticks T       длительность таймлайна в тиках
+ *  --hits H        среднее число попаданий по сущности в секунду
+ *  --seed S        seed таймлайна (детерминированный прогон)
+ *  --no-coalesce   отправлять каждое изменение отдельно (как до OutboundBus)
+ */
+public final class BarrierSyncBenchmark {
+    // приблизительная обёртка vanilla/Forge: id пакета custom payload + имя канала + дискриминатор
+    private static final String CHANNEL_NAME = "arslauria:main";
+    private static final int CUSTOM_PAYLOAD_PACKET_ID = 0x17;
+
+    private static final int BASE_DURATION = 10 * 20;
+    private static final int BASE_MAGIC = 100;
+    private static final int BASE_PHYS = 30;
+    private static final int REAPPLY_COOLDOWN_TICKS = 40;
+
+    private BarrierSyncBenchmark() {}
+
+    public static void main(String[] args) {
+        int players = intArg(args, "--players", 20);
+        int entities = intArg(args, "--entities", 50);
+        int ticks = intArg(args, "--ticks", 20 * 60);
+        double hitsPerSecond = doubleArg(args, "--hits", 2.0);
+        long seed = longArg(args, "--seed", 42L);
+        boolean coalesce = !hasFlag(args, "--no-coalesce");
+
+        Result r = run(players, entities, ticks, hitsPerSecond, seed, coalesce);
+        System.out.println(r.format(players, entities, ticks, coalesce));
+    }
+
+    /** Результат прогона. */
+    public record Result(long bytes, long messages, long decoded, long encodeNanos, int peakMessagesPerTick) {
+        String format(int players, int entities, int ticks, boolean coalesce) {
+            return String.format(Locale.ROOT,
+                    "[BarrierSyncBenchmark] players=%d entities=%d ticks=%d coalesce=%b%n"
+                            + "  bytes/tick      = %.1f (%.1f KiB/s total, %.1f B/s per player)%n"
+                            + "  messages/tick   = %.2f (peak %d)%n"
+                            + "  bytes/message   = %.1f%n"
+                            + "  encode time     = %.0f ns/message%n"
+                            + "  decoded/sent    = %d/%d",
+                    players, entities, ticks, coalesce,
+                    bytes / (double) ticks, bytes / (double) ticks * 20.0 / 1024.0, bytes / (double) ticks * 20.0 / players,
+                    messages / (double) ticks, peakMessagesPerTick,
+                    messages == 0 ? 0.0 : bytes / (double) messages,
+                    messages == 0 ? 0.0 : encodeNanos / (double) messages,
+                    decoded, messages);
+        }
+    }
+
+    public static Result run(int players, int entities, int ticks, double hitsPerSecond, long seed, boolean coalesce) {
+        Random rnd = new Random(seed);
+
+        EmbeddedChannel[] out = new EmbeddedChannel[players];
+        EmbeddedChannel[] in = new EmbeddedChannel[players];
+        for (int p = 0; p < players; p++) {
+            out[p] = new EmbeddedChannel(new Encoder());
+            in[p] = new EmbeddedChannel(new Decoder());
+        }
+
+        SimEntity[] sims = new SimEntity[entities];
+        for (int e = 0; e < entities; e++) {
+            sims[e] = new SimEntity(1000 + e);
+        }
+
+        BarrierSyncPacket[] pendingThisTick = new BarrierSyncPacket[entities];
+        double hitChance = hitsPerSecond / 20.0;
+
+        long bytes = 0, messages = 0, decoded = 0, encodeNanos = 0;
+        int peak = 0;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            int tickMessages = 0;
+
+            for (int e = 0; e < entities; e++) {
+                SimEntity s = sims[e];
+                // в каждом тике может прийти несколько изменений — схлопывание оставит последнее
+                int changes = s.step(tick, rnd, hitChance);
+                for (int c = 0; c < changes; c++) {
+                    BarrierSyncPacket pkt = s.packet();
+                    if (coalesce) {
+                        pendingThisTick[e] = pkt;
+                    } else {
+                        long[] sent = broadcast(pkt, out, in);
+                        bytes += sent[0];
+                        encodeNanos += sent[1];
+                        decoded += sent[2];
+                        messages += players;
+                        tickMessages += players;
+                    }
+                }
+            }
+
+            if (coalesce) {
+                for (int e = 0; e < entities; e++) {
+                    if (pendingThisTick[e] == null) continue;
+                    long[] sent = broadcast(pendingThisTick[e], out, in);
+                    bytes += sent[0];
+                    encodeNanos += sent[1];
+                    decoded += sent[2];
+                    messages += players;
+                    tickMessages += players;
+                    pendingThisTick[e] = null;
+                }
+            }
+            peak = Math.max(peak, tickMessages);
+        }
+
+        for (int p = 0; p < players; p++) {
+            out[p].finishAndReleaseAll();
+            in[p].finishAndReleaseAll();
+        }
+        return new Result(bytes, messages, decoded, encodeNanos, peak);
+    }
+
+    /** @return {байты, нс кодирования, декодировано сообщений} */
+    private static long[] broadcast(BarrierSyncPacket pkt, EmbeddedChannel[] out, EmbeddedChannel[] in) {
+        long bytes = 0, nanos = 0, decoded = 0;
+        for (int p = 0; p < out.length; p++) {
+            long t0 = System.nanoTime();
+            out[p].writeOutbound(pkt);
+            nanos += System.nanoTime() - t0;
+
+            ByteBuf wire;
+            while ((wire = out[p].readOutbound()) != null) {
+                bytes += wire.readableBytes();
+                in[p].writeInbound(wire);
+            }
+            while (in[p].readInbound() != null) {
+                decoded++;
+            }
+        }
+        return new long[]{bytes, nanos, decoded};
+    }
+
+    /** Серверная сторона одной сущности: барьер, скриптовые попадания, повторное наложение. */
+    private static final class SimEntity {
+        final int id;
+        int seq = 0;
+        boolean active = false;
+        int duration = 0;
+        int magic, magicMax, phys, physMax;
+        int cooldown = 0;
+
+        SimEntity(int id) {
+            this.id = id;
+        }
+
+        /** @return число изменений состояния в этом тике (каждое — отдельная отправка без шины) */
+        int step(int tick, Random rnd, double hitChance) {
+            int changes = 0;
+            if (!active) {
+                if (cooldown > 0) {
+                    cooldown--;
+                    return 0;
+                }
+                active = true;
+                duration = BASE_DURATION;
+                magic = magicMax = BASE_MAGIC;
+                phys = physMax = BASE_PHYS;
+                seq++;
+                return 1;
+            }
+
+            duration--;
+            // пачки попаданий (AoE / мультихит) — несколько изменений в одном тике
+            while (rnd.nextDouble() < hitChance && changes < 4) {
+                int dmg = 2 + rnd.nextInt(9);
+                if (rnd.nextBoolean()) {
+                    magic = Math.max(0, magic - dmg);
+                } else {
+                    phys = Math.max(0, phys - dmg);
+                }
+                seq++;
+                changes++;
+                if (magic <= 0 || phys <= 0) break;
+            }
+            if (duration <= 0 || magic <= 0 || phys <= 0) {
+                active = false;
+                cooldown = REAPPLY_COOLDOWN_TICKS;
+                seq++;
+                changes++;
+            }
+            return changes;
+        }
+
+        BarrierSyncPacket packet() {
+            if (!active) {
+                return new BarrierSyncPacket(id, seq, false, false, 0, 0, 0, 0, 0, 0);
+            }
+            return new BarrierSyncPacket(id, seq, false, true, duration, magic, magicMax, phys, physMax, 1);
+        }
+    }
+
+    /** Кодирование как у канала: обёртка custom payload + BarrierSyncPacket.encode, с varint-длиной кадра. */
+    private static final class Encoder extends MessageToByteEncoder<BarrierSyncPacket> {
+        @Override
+        protected void encode(ChannelHandlerContext ctx, BarrierSyncPacket msg, ByteBuf out) {
+            FriendlyByteBuf body = new FriendlyByteBuf(ctx.alloc().buffer());
+            try {
+                body.writeVarInt(CUSTOM_PAYLOAD_PACKET_ID);
+                body.writeUtf(CHANNEL_NAME);
+                body.writeByte(0); // дискриминатор сообщения SimpleChannel
+                BarrierSyncPacket.encode(msg, body);
+
+                FriendlyByteBuf frame = new FriendlyByteBuf(out);
+                frame.writeVarInt(body.readableBytes());
+                frame.writeBytes(body);
+            } finally {
+                body.release();
+            }
+        }
+    }
+
+    private static final class Decoder extends ByteToMessageDecoder {
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+            FriendlyByteBuf buf = new FriendlyByteBuf(in);
+            int length = buf.readVarInt();
+            int end = buf.readerIndex() + length;
+            buf.readVarInt();
+            buf.readUtf();
+            buf.readByte();
+            out.add(BarrierSyncPacket.decode(buf));
+            buf.readerIndex(end);
+        }
+    }
+
+    private static int intArg(String[] args, String name, int def) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return Integer.parseInt(args[i + 1]);
+        }
+        return def;
+    }
+
+    private static long longArg(String[] args, String name, long def) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return Long.parseLong(args[i + 1]);
+        }
+        return def;
+    }
+
+    private static double doubleArg(String[] args, String name, double def) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return Double.parseDouble(args[i + 1]);
+        }
+        return def;
+    }
+
+    private static boolean hasFlag(String[] args, String name) {
+        for (String a : args) {
+            if (a.equals(name)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.arslauria;
+
+import com.example.arslauria.client.DomeGeometry;
+import com.example.arslauria.client.DomeMeshCache;
+import com.example.arslauria.network.FxPreferences;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * Клиентский конфиг ArsLauria (config/arslauria-client.toml).
+ * Регистрируется в конструкторе {@link Lauria}.
+ */
+public class ClientConfig {
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.BooleanValue SHOW_DOMES;
+    public static final ForgeConfigSpec.EnumValue<FxPreferences.ParticleLevel> PARTICLES;
+    public static final ForgeConfigSpec.BooleanValue REDUCED_SOUNDS;
+    public static final ForgeConfigSpec.IntValue PARTICLE_BUDGET;
+    public static final ForgeConfigSpec.BooleanValue SHOW_AURA;
+    public static final ForgeConfigSpec.IntValue MAX_SOUND_VOICES;
+
+    public static final ForgeConfigSpec.IntValue DOME_RENDER_DISTANCE;
+    public static final ForgeConfigSpec.IntValue DOME_LOD_DISTANCE;
+    public static final ForgeConfigSpec.IntValue MAX_DOMES_PER_FRAME;
+    public static final ForgeConfigSpec.EnumValue<DomeGeometry.Shape> DOME_SHAPE;
+    public static final ForgeConfigSpec.IntValue DOME_DETAIL;
+
+    public static final ForgeConfigSpec.BooleanValue SHOW_BARS;
+    public static final ForgeConfigSpec.IntValue BAR_RENDER_DISTANCE;
+    public static final ForgeConfigSpec.IntValue MAX_BARS_PER_FRAME;
+
+    static {
+        ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
+
+        builder.comment("Visual effects. These preferences are sent to the server, which then skips",
+                "sending the corresponding packets to this client.").push("fx");
+        SHOW_DOMES = builder
+                .comment("Render barrier domes and receive barrier visual updates for other entities.")
+                .define("showDomes", true);
+        PARTICLES = builder
+                .comment("ALL - every ArsLauria particle, MINIMAL - only essential ones, NONE - no ArsLauria particles.")
+                .defineEnum("particles", FxPreferences.ParticleLevel.ALL);
+        REDUCED_SOUNDS = builder
+                .comment("Skip secondary ArsLauria sounds (e.g. one glass-break per broken barrier stack).")
+                .define("reducedSounds", false);
+        PARTICLE_BUDGET = builder
+                .comment("Max ArsLauria particles spawned per frame on this client; the nearest to the camera win.")
+                .defineInRange("particleBudget", 64, 0, 1024);
+        SHOW_AURA = builder
+                .comment("Show the mana aura ring around yourself.")
+                .define("aura", true);
+        MAX_SOUND_VOICES = builder
+                .comment("Max concurrent barrier/blast sounds on this client; identical sounds close together are merged.")
+                .defineInRange("maxSoundVoices", 8, 1, 64);
+        builder.pop();
+
+        builder.comment("Barrier dome rendering (client only).").push("domes");
+        DOME_RENDER_DISTANCE = builder
+                .comment("Domes farther than this many blocks are not drawn.")
+                .defineInRange("renderDistance", 64, 8, 256);
+        DOME_LOD_DISTANCE = builder
+                .comment("Closer than this: full shell with cracks and particles. Farther: simplified shell.")
+                .defineInRange("lodDistance", 24, 0, 256);
+        MAX_DOMES_PER_FRAME = builder
+                .comment("Upper bound on domes drawn per frame; the nearest ones win.")
+                .defineInRange("maxPerFrame", 128, 1, 4096);
+        DOME_SHAPE = builder
+                .comment("CUBE - hollow cube (cheapest), SPHERE - icosphere, HEX - sphere of hexagonal panels.")
+                .defineEnum("shape", DomeGeometry.Shape.CUBE);
+        DOME_DETAIL = builder
+                .comment("Subdivision level of SPHERE/HEX domes up close; mid-range domes use one level less.",
+                        "Each level multiplies the vertex count by ~4 (HEX: 144 vertices at 0, 1944 at 2).")
+                .defineInRange("detail", 0, 0, DomeMeshCache.MAX_DETAIL);
+        builder.pop();
+
+        builder.comment("Barrier HP bars above other entities (client only).").push("bars");
+        SHOW_BARS = builder
+                .comment("Draw magic/phys barrier bars above barriered entities.")
+                .define("enabled", true);
+        BAR_RENDER_DISTANCE = builder
+                .comment("Bars farther than this many blocks are not drawn.")
+                .defineInRange("renderDistance", 32, 4, 128);
+        MAX_BARS_PER_FRAME = builder
+                .comment("Upper bound on bars drawn per frame; the nearest ones win.")
+                .defineInRange("maxPerFrame", 64, 1, 1024);
+        builder.pop();
+
+        SPEC = builder.build();
+    }
+
+    /** Текущие предпочтения из конфига. */
+    public static FxPreferences fxPreferences() {
+        return new FxPreferences(SHOW_DOMES.get(), PARTICLES.get(), REDUCED_SOUNDS.get());
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.arslauria;
 
+import com.example.arslauria.client.ClientFxPrefsSync;
+import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.DistExecutor;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.config.ModConfigEvent;
 
@@ -11,5 +14,10 @@ public class ExampleConfig {
     public static void onLoad(final ModConfigEvent.Loading configEvent) { }
 
     @SubscribeEvent
-    public static void onReload(final ModConfigEvent.Reloading configEvent) { }
+    public static void onReload(final ModConfigEvent.Reloading configEvent) {
+        // клиентский конфиг изменён — сообщаем серверу новые FX-предпочтения
+        if (configEvent.getConfig().getSpec() == ClientConfig.SPEC) {
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> ClientFxPrefsSync::sendOnClientThread);
+        }
+    }
 }
@@ -66,6 +66,8 @@ public class Lauria
 
         MinecraftForge.EVENT_BUS.register(this);
         ModEffects.register(modbus);
+
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, ClientConfig.SPEC);
     }
 
     public static ResourceLocation prefix(String path){
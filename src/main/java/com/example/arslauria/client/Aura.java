@@ -1,41 +1,87 @@
-/*
 package com.example.arslauria.client;
 
+import com.example.arslauria.ClientConfig;
 import com.example.arslauria.ModCommands;
 import com.hollingsworth.arsnouveau.api.mana.IManaCap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.api.distmarker.Dist;
-import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.util.LazyOptional;
 import net.minecraftforge.event.TickEvent.PlayerTickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-
- // Клиентский подписчик для отрисовки ауры
-
+/**
+ * Клиентская аура маны вокруг локального игрока (кольцо ENCHANT-частиц, радиус по максимальной мане).
+ *
+ * Capability кэшируется (LazyOptional + слушатель инвалидации), максимальная мана перечитывается
+ * раз в {@link #MANA_REFRESH_TICKS} тиков — Ars Nouveau синхронизирует ману только владельцу и без
+ * события, на которое можно подписаться. Смещения кольца заранее посчитаны для каждого уровня радиуса;
+ * за одну эмиссию выпускается только часть кольца, всё — через {@link ClientParticleBudget}.
+ */
 @Mod.EventBusSubscriber(
         modid = com.example.arslauria.Lauria.MOD_ID,
         value = Dist.CLIENT,
         bus = Mod.EventBusSubscriber.Bus.FORGE
 )
 public class Aura {
+    private static final int POINTS = 20;              // кол-во точек окружности
+    private static final int POINTS_PER_EMIT = 5;      // точек за одну эмиссию (кольцо — за 4 эмиссии)
+    private static final long EMIT_INTERVAL_MS = 100L; // не чаще, чем раз в 100 мс
+    private static final int MANA_REFRESH_TICKS = 20;
+
+    // уровни радиуса (см. computeRadius) -> смещения точек кольца: dx0,dz0,dx1,dz1,...
+    private static final float[] TIER_RADIUS = {1.0f, 2.0f, 3.0f};
+    private static final float[][] RING = new float[TIER_RADIUS.length][POINTS * 2];
+    static {
+        double dYaw = 2 * Math.PI / POINTS;
+        for (int t = 0; t < TIER_RADIUS.length; t++) {
+            for (int i = 0; i < POINTS; i++) {
+                RING[t][i * 2] = (float) (TIER_RADIUS[t] * Math.cos(i * dYaw));
+                RING[t][i * 2 + 1] = (float) (TIER_RADIUS[t] * Math.sin(i * dYaw));
+            }
+        }
+    }
+
+    // кэш capability и производного уровня ауры
+    private static Player cachedPlayer;
+    private static LazyOptional<IManaCap> cachedCap = LazyOptional.empty();
+    private static int cachedTier = -1;
+    private static int refreshCountdown = 0;
+    private static int nextPoint = 0;
 
     @SubscribeEvent
     public static void onPlayerTick(PlayerTickEvent event) {
         // Только клиент и только локальный игрок, на фазе END
-        if (event.player.level().isClientSide()
-                && event.phase == PlayerTickEvent.Phase.END
-                && event.player == Minecraft.getInstance().player) {
+        if (!event.player.level().isClientSide()
+                || event.phase != PlayerTickEvent.Phase.END
+                || event.player != Minecraft.getInstance().player) return;
+        if (!ClientConfig.SHOW_AURA.get()) return;
 
-            // Берём ману из capability
-            event.player.getCapability(ModCommands.MANA_CAP)
-                    .resolve()
-                    .ifPresent(cap -> spawnAura(event.player.getX(),
-                            event.player.getY() + event.player.getEyeHeight() - 1.3,
-                            event.player.getZ(),
-                            cap.getMaxMana()));
+        Player player = event.player;
+        if (player != cachedPlayer) {
+            bind(player);
+        }
+        if (--refreshCountdown <= 0) {
+            refreshCountdown = MANA_REFRESH_TICKS;
+            cachedTier = cachedCap.map(cap -> tierOf(computeRadius(cap.getMaxMana()))).orElse(-1);
         }
+        if (cachedTier < 0) return;
+
+        if (!ClientParticleBudget.throttle(ClientParticleBudget.Channel.AURA, player.getId(), EMIT_INTERVAL_MS)) return;
+        spawnAura(player.getX(), player.getY() + player.getEyeHeight() - 1.3, player.getZ(), cachedTier);
+    }
+
+    private static void bind(Player player) {
+        cachedPlayer = player;
+        cachedCap = player.getCapability(ModCommands.MANA_CAP);
+        refreshCountdown = 0;
+        // capability инвалидирована (респаун, смена измерения) — перепривязка на следующем тике
+        cachedCap.addListener(invalidated -> {
+            cachedPlayer = null;
+            cachedTier = -1;
+        });
     }
 
     // Вычисляем радиус ауры по максимальной мане
@@ -49,23 +95,23 @@ public class Aura {
         }
     }
 
-    // Спавнит часть частиц по окружности вокруг (x,y,z)
-    private static void spawnAura(double x, double y, double z, double maxMana) {
-        float radius = computeRadius(maxMana);
-        int points = 20;              // кол-во точек окружности
-        double dYaw  = 2 * Math.PI / points;
-        var world = Minecraft.getInstance().level;
+    private static int tierOf(float radius) {
+        for (int t = 0; t < TIER_RADIUS.length; t++) {
+            if (radius <= TIER_RADIUS[t]) return t;
+        }
+        return TIER_RADIUS.length - 1;
+    }
 
-        for (int i = 0; i < points; i++) {
-            double angle = i * dYaw;
-            double px = x + radius * Math.cos(angle);
-            double pz = z + radius * Math.sin(angle);
+    // Ставит в очередь следующую часть кольца вокруг (x,y,z)
+    private static void spawnAura(double x, double y, double z, int tier) {
+        float[] ring = RING[tier];
+        for (int k = 0; k < POINTS_PER_EMIT; k++) {
+            int i = nextPoint;
+            nextPoint = (nextPoint + 1) % POINTS;
             // Используем ENCHANT-партикл, он хорошо смотрится как «аура»
-            world.addParticle(ParticleTypes.ENCHANT,
-                    px, y, pz,
-                    0, 0.02, 0);
+            ClientParticleBudget.request(ParticleTypes.ENCHANT,
+                    x + ring[i * 2], y, z + ring[i * 2 + 1],
+                    0, 0.02, 0, true);
         }
     }
 }
-
- */
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.ClientConfig;
+import com.example.arslauria.Lauria;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import net.minecraft.client.Camera;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RenderLevelStageEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Полоски барьера (magic/phys) над сущностями — billboard-квады цвета без текста и текстур,
+ * все в одном буфере position-color и одной отрисовкой за кадр.
+ *
+ * Отбор как у куполов: индекс {@link ClientBarrierData} -> дистанция -> фрустум, ближние первыми,
+ * не больше {@code bars.maxPerFrame}. Значения — производное состояние, пересчитанное за тик.
+ * Собственный барьер в виде от первого лица не рисуется — для него есть {@link BarrierHudOverlay}.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.FORGE
+)
+public final class BarrierBarRenderer {
+    private static final float BAR_WIDTH = 0.8f;
+    private static final float BAR_HEIGHT = 0.06f;
+    private static final float BAR_GAP = 0.02f;
+    private static final float ABOVE_HEAD = 0.45f;
+    // заливка чуть ближе к камере, чем фон, — без z-fighting
+    private static final float FILL_BIAS = 0.005f;
+
+    private static final int BACK_ARGB = 0x90000000;
+    private static final int MAGIC_ARGB = 0xE09B4DFF;
+    private static final int PHYS_ARGB = 0xE0C8C8C8;
+
+    // кандидаты текущего кадра (переиспользуемые массивы, только render thread)
+    private static int[] IDS = new int[64];
+    private static double[] TOP = new double[64 * 3]; // точка над головой, интерполированная
+    private static long[] ORDER = new long[64];
+    private static int count;
+
+    private BarrierBarRenderer() {}
+
+    @SubscribeEvent
+    public static void onRenderLevelStage(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_ENTITIES) return;
+        if (!ClientConfig.SHOW_BARS.get()) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.level == null || mc.player == null || mc.options.hideGui) return;
+
+        Camera camera = event.getCamera();
+        Vec3 cam = camera.getPosition();
+        double cutoff = ClientConfig.BAR_RENDER_DISTANCE.get();
+        LivingEntity self = camera.isDetached() ? null : mc.player;
+
+        collect(mc.level, event.getFrustum(), cam, cutoff * cutoff, event.getPartialTick(), self);
+        if (count == 0) return;
+
+        Arrays.sort(ORDER, 0, count);
+        int limit = Math.min(count, ClientConfig.MAX_BARS_PER_FRAME.get());
+
+        // оси billboard — из поворота камеры, одни на кадр
+        Vector3f left = camera.getLeftVector();
+        Vector3f up = camera.getUpVector();
+        Vector3f look = camera.getLookVector();
+
+        MultiBufferSource.BufferSource buf = mc.renderBuffers().bufferSource();
+        RenderType type = BarRenderType.BARS;
+        VertexConsumer vc = buf.getBuffer(type);
+        Matrix4f mat = event.getPoseStack().last().pose();
+
+        for (int k = 0; k < limit; k++) {
+            int i = (int) ORDER[k];
+            int id = IDS[i];
+            float x = (float) (TOP[i * 3] - cam.x);
+            float y = (float) (TOP[i * 3 + 1] - cam.y);
+            float z = (float) (TOP[i * 3 + 2] - cam.z);
+
+            float magicY = BAR_HEIGHT + BAR_GAP;
+            bar(vc, mat, left, up, look, x, y, z, magicY, (float) ClientBarrierData.getMagicPercent(id), MAGIC_ARGB);
+            bar(vc, mat, left, up, look, x, y, z, 0f, (float) ClientBarrierData.getPhysPercent(id), PHYS_ARGB);
+        }
+
+        buf.endBatch(type);
+        count = 0;
+    }
+
+    private static void collect(ClientLevel level, Frustum frustum, Vec3 cam, double maxDistSq,
+                                float partialTick, LivingEntity self) {
+        count = 0;
+        ClientBarrierData.forEachActive(id -> {
+            if (!(level.getEntity(id) instanceof LivingEntity entity) || !entity.isAlive() || entity == self) return;
+
+            double x = entity.xOld + (entity.getX() - entity.xOld) * partialTick;
+            double y = entity.yOld + (entity.getY() - entity.yOld) * partialTick + entity.getBbHeight() + ABOVE_HEAD;
+            double z = entity.zOld + (entity.getZ() - entity.zOld) * partialTick;
+
+            double dx = x - cam.x, dy = y - cam.y, dz = z - cam.z;
+            double distSq = dx * dx + dy * dy + dz * dz;
+            if (distSq > maxDistSq) return;
+
+            double h = BAR_WIDTH * 0.5;
+            if (!frustum.isVisible(new AABB(x - h, y - h, z - h, x + h, y + h, z + h))) return;
+
+            if (count == IDS.length) {
+                int cap = count * 2;
+                IDS = Arrays.copyOf(IDS, cap);
+                TOP = Arrays.copyOf(TOP, cap * 3);
+                ORDER = Arrays.copyOf(ORDER, cap);
+            }
+            int i = count++;
+            IDS[i] = id;
+            TOP[i * 3] = x;
+            TOP[i * 3 + 1] = y;
+            TOP[i * 3 + 2] = z;
+            // ключ сортировки: биты неотрицательного float монотонны, в младших 32 битах — индекс
+            ORDER[i] = ((long) Float.floatToIntBits((float) distSq) << 32) | i;
+        });
+    }
+
+    /** Фон и заливка одной полоски; (x, y, z) — центр нижнего края блока полосок относительно камеры. */
+    private static void bar(VertexConsumer vc, Matrix4f mat, Vector3f left, Vector3f up, Vector3f look,
+                            float x, float y, float z, float offsetUp, float percent, int argb) {
+        float half = BAR_WIDTH * 0.5f;
+        quad(vc, mat, left, up, x, y, z, half, -half, offsetUp, offsetUp + BAR_HEIGHT, BACK_ARGB);
+
+        float filled = BAR_WIDTH * Math.max(0f, Math.min(1f, percent));
+        if (filled <= 0f) return;
+        float fx = x - look.x() * FILL_BIAS, fy = y - look.y() * FILL_BIAS, fz = z - look.z() * FILL_BIAS;
+        // заполняется слева направо (с точки зрения камеры)
+        quad(vc, mat, left, up, fx, fy, fz, half, half - filled, offsetUp, offsetUp + BAR_HEIGHT, argb);
+    }
+
+    /** Квад в плоскости камеры: по left от l0 до l1, по up от u0 до u1. */
+    private static void quad(VertexConsumer vc, Matrix4f mat, Vector3f left, Vector3f up,
+                             float x, float y, float z, float l0, float l1, float u0, float u1, int argb) {
+        int a = argb >>> 24, r = (argb >> 16) & 0xFF, g = (argb >> 8) & 0xFF, b = argb & 0xFF;
+        vertex(vc, mat, left, up, x, y, z, l0, u0, r, g, b, a);
+        vertex(vc, mat, left, up, x, y, z, l1, u0, r, g, b, a);
+        vertex(vc, mat, left, up, x, y, z, l1, u1, r, g, b, a);
+        vertex(vc, mat, left, up, x, y, z, l0, u1, r, g, b, a);
+    }
+
+    private static void vertex(VertexConsumer vc, Matrix4f mat, Vector3f left, Vector3f up,
+                               float x, float y, float z, float l, float u, int r, int g, int b, int a) {
+        vc.vertex(mat,
+                        x + left.x() * l + up.x() * u,
+                        y + left.y() * l + up.y() * u,
+                        z + left.z() * l + up.z() * u)
+                .color(r, g, b, a)
+                .endVertex();
+    }
+
+    /** position-color квады: полупрозрачные, без отсечения граней (billboard виден с обеих сторон). */
+    private static final class BarRenderType extends RenderType {
+        static final RenderType BARS = create("arslauria_barrier_bars",
+                DefaultVertexFormat.POSITION_COLOR, VertexFormat.Mode.QUADS, 256, false, true,
+                CompositeState.builder()
+                        .setShaderState(POSITION_COLOR_SHADER)
+                        .setTransparencyState(TRANSLUCENT_TRANSPARENCY)
+                        .setCullState(NO_CULL)
+                        .setDepthTestState(LEQUAL_DEPTH_TEST)
+                        .createCompositeState(false));
+
+        // только для доступа к защищённым состояниям RenderStateShard; экземпляры не создаются
+        private BarRenderType(String name, VertexFormat format, VertexFormat.Mode mode, int bufferSize,
+                              boolean affectsCrumbling, boolean sortOnUpload, Runnable setup, Runnable clear) {
+            super(name, format, mode, bufferSize, affectsCrumbling, sortOnUpload, setup, clear);
+        }
+    }
+}
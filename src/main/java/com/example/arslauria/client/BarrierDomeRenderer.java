@@ -1,27 +1,36 @@
 package com.example.arslauria.client;
 
+import com.example.arslauria.ClientConfig;
 import com.example.arslauria.Lauria;
-import com.example.arslauria.setup.ModEffects;
 import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
-import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.Sheets;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.RenderLevelStageEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
- * Hollow cube renderer implemented by drawing six thin slabs (faces) using renderSingleBlock.
- * This approach avoids low-level vertex/matrix mismatches and is compatible with block rendering pipeline.
+ * Barrier dome renderer: every dome is an instance of one pre-baked shell mesh ({@link DomeMesh}, shape and
+ * detail from the client config, generated once per resource reload by {@link DomeMeshCache}),
+ * written with its own transform and crack tint into a single translucent buffer and drawn in one batch.
+ * Domes outside the view frustum or beyond the configured distance are skipped; near ones get the full
+ * shell with crack pulse and particles, mid-range ones a simpler outer-only shell; at most N nearest per frame.
  */
 @Mod.EventBusSubscriber(
         modid = Lauria.MOD_ID,
@@ -40,202 +49,178 @@ public class BarrierDomeRenderer {
     private static final float OFFSET_Y = 0.0f;
     private static final float MIN_DIM = 0.3f;
     private static final float MAX_DIM = 6.0f;
-    private static final double MAX_RENDER_DISTANCE = 64.0;
-    // Толщина граней в unit-cube (0..1). 0.02 ≈ 1/50 блока — тонкая грань.
-    private static final float THICKNESS = 0.02f;
-    private static final java.util.concurrent.ConcurrentHashMap<Integer, Long> LAST_PARTICLE = new java.util.concurrent.ConcurrentHashMap<>();
+    // текстура купола (спрайт блочного атласа) и цвет экземпляра при трещинах
+    private static final ResourceLocation DOME_TEXTURE = new ResourceLocation("minecraft", "block/tinted_glass");
+    private static final int CRACK_RGB = 0xFF8C8C;
+    private static final long CRACK_PARTICLE_INTERVAL_MS = 200L;
 
     // --------------------------------
 
+    // кандидаты текущего кадра (переиспользуемые массивы, только render thread)
+    private static LivingEntity[] ENTITIES = new LivingEntity[64];
+    private static double[] CENTER = new double[64 * 3];
+    private static float[] SIZE = new float[64 * 3];
+    private static long[] ORDER = new long[64];
+    private static int count;
+
+    // частицы трещин — через общий бюджет частиц, не чаще раза в CRACK_PARTICLE_INTERVAL_MS на сущность
     private static void spawnCrackParticles(LivingEntity entity) {
-        Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) return;
+        if (!ClientParticleBudget.throttle(ClientParticleBudget.Channel.DOME_CRACK, entity.getId(), CRACK_PARTICLE_INTERVAL_MS)) return;
         double cx = entity.getX();
         double cy = entity.getY() + entity.getBbHeight() * 0.5;
         double cz = entity.getZ();
-        // несколько частиц случайно по кубу
+        // несколько частиц случайно по куполу
         for (int i = 0; i < 3; i++) {
-            double rx = (Math.random() - 0.5) * entity.getBbWidth();
-            double ry = (Math.random() - 0.5) * entity.getBbHeight();
-            double rz = (Math.random() - 0.5) * entity.getBbWidth();
-            mc.level.addParticle(net.minecraft.core.particles.ParticleTypes.DAMAGE_INDICATOR,
-                    cx + rx, cy + ry, cz + rz,
-                    0.0, 0.0, 0.0);
+            ClientParticleBudget.request(ParticleTypes.DAMAGE_INDICATOR,
+                    cx + ClientParticleBudget.jitter(entity.getBbWidth()),
+                    cy + ClientParticleBudget.jitter(entity.getBbHeight()),
+                    cz + ClientParticleBudget.jitter(entity.getBbWidth()),
+                    0.0, 0.0, 0.0, false);
         }
     }
 
 
     @SubscribeEvent
     public static void onRenderLevelStage(RenderLevelStageEvent event) {
-        if (!RENDER_ENABLED) return;
+        if (!RENDER_ENABLED || !ClientConfig.SHOW_DOMES.get()) return;
         if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_ENTITIES) return;
 
         Minecraft mc = Minecraft.getInstance();
         if (mc.level == null || mc.player == null) return;
 
-        PoseStack ms = event.getPoseStack();
-        MultiBufferSource.BufferSource buf = mc.renderBuffers().bufferSource();
-
-        double camX = mc.gameRenderer.getMainCamera().getPosition().x;
-        double camY = mc.gameRenderer.getMainCamera().getPosition().y;
-        double camZ = mc.gameRenderer.getMainCamera().getPosition().z;
-        ms.pushPose();
-        ms.translate(-camX, -camY, -camZ);
-
-        double maxDistSq = MAX_RENDER_DISTANCE * MAX_RENDER_DISTANCE;
-        Set<Integer> renderedIds = new HashSet<>();
+        boolean stats = RenderStats.enabled;
+        long startNanos = stats ? System.nanoTime() : 0L;
 
-        // --- 1) Обычный перебор сущностей рядом ---
-        for (LivingEntity entity : mc.level.getEntitiesOfClass(LivingEntity.class, mc.player.getBoundingBox().inflate(MAX_RENDER_DISTANCE))) {
-            if (entity == null) continue;
-            if (!entity.isAlive()) continue;
+        Vec3 cam = mc.gameRenderer.getMainCamera().getPosition();
+        double cutoff = ClientConfig.DOME_RENDER_DISTANCE.get();
+        double lod = ClientConfig.DOME_LOD_DISTANCE.get();
 
-            boolean hasEffect = entity.hasEffect(ModEffects.BARRIER.get());
-            boolean inClientMap = ClientBarrierData.contains(entity.getId());
-
-            if (!hasEffect && !inClientMap) continue;
-
-            double dx = entity.getX() - camX;
-            double dy = (entity.getY() + entity.getBbHeight() * 0.5) - camY;
-            double dz = entity.getZ() - camZ;
-            if (dx*dx + dy*dy + dz*dz > maxDistSq) continue;
-
-            renderHollowForEntity(entity, ms, buf, event.getPartialTick());
-            renderedIds.add(entity.getId());
+        // 1) отбор: индекс барьеров -> дистанция -> фрустум
+        int considered = ClientBarrierData.size();
+        collect(mc.level, event.getFrustum(), cam, cutoff * cutoff, event.getPartialTick());
+        if (count == 0) {
+            if (stats) RenderStats.recordDomes(considered, considered, 0, 0, System.nanoTime() - startNanos);
+            return;
         }
 
-        // --- 2) Fallback: рендер по ClientBarrierData (если есть id'ы, которых не встретили) ---
-        for (Integer id : ClientBarrierData.getEntities()) {
-            if (renderedIds.contains(id)) continue; // уже отрендерено
-
-            var maybeEntity = mc.level.getEntity(id);
-            if (!(maybeEntity instanceof LivingEntity)) continue;
-            LivingEntity entity = (LivingEntity) maybeEntity;
-
-            double dx = entity.getX() - camX;
-            double dy = (entity.getY() + entity.getBbHeight() * 0.5) - camY;
-            double dz = entity.getZ() - camZ;
-            if (dx*dx + dy*dy + dz*dz > maxDistSq) continue;
+        // 2) ближние первыми; рисуем не больше лимита
+        Arrays.sort(ORDER, 0, count);
+        int limit = Math.min(count, ClientConfig.MAX_DOMES_PER_FRAME.get());
 
-            renderHollowForEntity(entity, ms, buf, event.getPartialTick());
-            renderedIds.add(entity.getId());
+        MultiBufferSource.BufferSource buf = mc.renderBuffers().bufferSource();
+        // один RenderType на все купола — без сброса общего translucent-батча
+        RenderType domeType = Sheets.translucentCullBlockSheet();
+        VertexConsumer vc = buf.getBuffer(domeType);
+        TextureAtlasSprite sprite = mc.getTextureAtlas(InventoryMenu.BLOCK_ATLAS).apply(DOME_TEXTURE);
+        PoseStack.Pose pose = event.getPoseStack().last();
+
+        // LOD: полная оболочка с заданной детализацией вблизи, внешняя и на уровень проще — дальше
+        DomeGeometry.Shape shape = ClientConfig.DOME_SHAPE.get();
+        int detail = ClientConfig.DOME_DETAIL.get();
+        DomeMesh nearMesh = DomeMeshCache.get(shape, detail, true);
+        DomeMesh midMesh = DomeMeshCache.get(shape, detail - 1, false);
+
+        // пульсация трещин — одна на кадр, общая для всех куполов
+        float pulse = 0.5f + 0.5f * (float) Math.sin(System.currentTimeMillis() / 120.0);
+        double lodSq = lod * lod;
+        int vertices = 0;
+
+        for (int k = 0; k < limit; k++) {
+            int i = (int) ORDER[k];
+            float distSq = Float.intBitsToFloat((int) (ORDER[k] >>> 32));
+            boolean near = distSq <= lodSq;
+            DomeMesh mesh = near ? nearMesh : midMesh;
+            renderDome(i, near, mesh, vc, pose, sprite, cam, pulse);
+            if (stats) vertices += mesh.vertexCount();
         }
 
-        buf.endBatch(RenderType.translucent());
-        ms.popPose();
-    }
-
-    private static void renderHollowForEntity(LivingEntity entity, PoseStack ms, MultiBufferSource.BufferSource buf, float partialTick) {
-        // интерполяция позиции и центр по высоте
-        double ex = interpolate(entity.xOld, entity.getX(), partialTick);
-        double eyFeet = interpolate(entity.yOld, entity.getY(), partialTick);
-        double eyCenter = eyFeet + entity.getBbHeight() / 2.0 + OFFSET_Y;
-        double ez = interpolate(entity.zOld, entity.getZ(), partialTick);
-
-        float baseW = (float) entity.getBbWidth();
-        float baseH = (float) entity.getBbHeight();
-
-        // размер куба (unit cube позже масштабируется)
-        float targetX, targetY, targetZ;
-        if (UNIFORM_CUBE) {
-            float base = Math.max(baseW, baseH);
-            float dim = base * SCALE_MULTIPLIER + ADD_PADDING;
-            dim = clamp(dim, MIN_DIM, MAX_DIM);
-            targetX = targetY = targetZ = dim;
-        } else {
-            targetX = clamp(baseW * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
-            targetZ = clamp(baseW * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
-            targetY = clamp(baseH * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
+        buf.endBatch(domeType);
+        if (stats) {
+            RenderStats.recordDomes(considered, considered - count, limit, vertices, System.nanoTime() - startNanos);
         }
+        Arrays.fill(ENTITIES, 0, count, null);
+        count = 0;
+    }
 
-        // нижний-левый-задний угол итогового куба
-        double minX = ex - targetX / 2.0;
-        double minY = eyCenter - targetY / 2.0;
-        double minZ = ez - targetZ / 2.0;
-
-        // По сути мы будем масштабировать unit-cube (0..1) в размер targetX/Y/Z,
-        // и внутри этого пространства рисовать шесть тонких плит (slabs).
-        ms.pushPose();
-
-        // переносим в min
-        ms.translate(minX, minY, minZ);
-        // масштабируем unit-cube в target размеры
-        ms.scale(targetX, targetY, targetZ);
-
-        boolean cracking = com.example.arslauria.client.ClientBarrierData.isCracking(entity.getId());
-        if (cracking) {
-            // пульсация (маленькая): делаем scale относительно центра unit-cube
-            float jitter = 1.0f + (float)Math.sin(System.currentTimeMillis() / 120.0) * 0.02f; // ~2% масштаб
-            // центр unit-cube = (0.5,0.5,0.5)
-            ms.translate(0.5, 0.5, 0.5);
-            ms.scale(jitter, jitter, jitter);
-            ms.translate(-0.5, -0.5, -0.5);
-
-            // спавн частиц с тайротлом (чтобы не спамить) — используем статическую карту
-            long now = System.currentTimeMillis();
-            Long last = LAST_PARTICLE.putIfAbsent(entity.getId(), now);
-            if (last == null) {
-                // только добавили — spawn сразу
-                spawnCrackParticles(entity);
-                LAST_PARTICLE.put(entity.getId(), now);
+    /** Заполнить кандидатов кадра: видимые барьеры не дальше cutoff, с интерполированными центром и размером. */
+    private static void collect(ClientLevel level, Frustum frustum, Vec3 cam, double maxDistSq, float partialTick) {
+        count = 0;
+        // единственный источник — клиентский индекс барьеров; сущности достаём по id
+        ClientBarrierData.forEachActive(id -> {
+            if (!(level.getEntity(id) instanceof LivingEntity entity) || !entity.isAlive()) return;
+
+            // интерполяция позиции и центр по высоте
+            double cx = interpolate(entity.xOld, entity.getX(), partialTick);
+            double cy = interpolate(entity.yOld, entity.getY(), partialTick) + entity.getBbHeight() / 2.0 + OFFSET_Y;
+            double cz = interpolate(entity.zOld, entity.getZ(), partialTick);
+
+            double dx = cx - cam.x, dy = cy - cam.y, dz = cz - cam.z;
+            double distSq = dx*dx + dy*dy + dz*dz;
+            if (distSq > maxDistSq) return;
+
+            float baseW = (float) entity.getBbWidth();
+            float baseH = (float) entity.getBbHeight();
+
+            // размер куба (unit cube масштабируется в него)
+            float sx, sy, sz;
+            if (UNIFORM_CUBE) {
+                float base = Math.max(baseW, baseH);
+                float dim = base * SCALE_MULTIPLIER + ADD_PADDING;
+                dim = clamp(dim, MIN_DIM, MAX_DIM);
+                sx = sy = sz = dim;
             } else {
-                if (now - last >= 200) { // каждые ~200ms
-                    spawnCrackParticles(entity);
-                    LAST_PARTICLE.put(entity.getId(), now);
-                }
+                sx = clamp(baseW * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
+                sz = clamp(baseW * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
+                sy = clamp(baseH * SCALE_MULTIPLIER + ADD_PADDING, MIN_DIM, MAX_DIM);
             }
+
+            // с запасом под пульсацию
+            double hx = sx * 0.53, hy = sy * 0.53, hz = sz * 0.53;
+            if (!frustum.isVisible(new AABB(cx - hx, cy - hy, cz - hz, cx + hx, cy + hy, cz + hz))) return;
+
+            ensureCapacity(count + 1);
+            int i = count++;
+            ENTITIES[i] = entity;
+            CENTER[i * 3] = cx;
+            CENTER[i * 3 + 1] = cy;
+            CENTER[i * 3 + 2] = cz;
+            SIZE[i * 3] = sx;
+            SIZE[i * 3 + 1] = sy;
+            SIZE[i * 3 + 2] = sz;
+            // ключ сортировки: биты неотрицательного float монотонны, в младших 32 битах — индекс
+            ORDER[i] = ((long) Float.floatToIntBits((float) distSq) << 32) | i;
+        });
+    }
+
+    private static void renderDome(int i, boolean near, DomeMesh mesh, VertexConsumer vc, PoseStack.Pose pose,
+                                   TextureAtlasSprite sprite, Vec3 cam, float pulse) {
+        LivingEntity entity = ENTITIES[i];
+        float sx = SIZE[i * 3], sy = SIZE[i * 3 + 1], sz = SIZE[i * 3 + 2];
+
+        boolean cracking = ClientBarrierData.isCracking(entity.getId());
+        float crackLevel = ClientBarrierData.getCrackLevel(entity.getId());
+        if (cracking && near) {
+            spawnCrackParticles(entity);
         }
 
-        BlockState state = Blocks.TINTED_GLASS.defaultBlockState();
-
-        // Толщина в локальных unit-координатах
-        float t = THICKNESS;
-
-        // FRONT (z = 0 .. t)
-        ms.pushPose();
-        ms.translate(0.0, 0.0, 0.0); // в unit coords
-        ms.scale(1.0f, 1.0f, t);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        // BACK (z = 1-t .. 1) -> translate z = 1 - t, scale z = t
-        ms.pushPose();
-        ms.translate(0.0, 0.0, 1.0 - t);
-        ms.scale(1.0f, 1.0f, t);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        // LEFT (x = 0 .. t)
-        ms.pushPose();
-        ms.translate(0.0, 0.0, 0.0);
-        ms.scale(t, 1.0f, 1.0f);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        // RIGHT (x = 1-t .. 1)
-        ms.pushPose();
-        ms.translate(1.0 - t, 0.0, 0.0);
-        ms.scale(t, 1.0f, 1.0f);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        // BOTTOM (y = 0 .. t)
-        ms.pushPose();
-        ms.translate(0.0, 0.0, 0.0);
-        ms.scale(1.0f, t, 1.0f);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        // TOP (y = 1-t .. 1)
-        ms.pushPose();
-        ms.translate(0.0, 1.0 - t, 0.0);
-        ms.scale(1.0f, t, 1.0f);
-        Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state, ms, buf, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
-        ms.popPose();
-
-        ms.popPose();
+        // нижний-левый-задний угол купола относительно камеры
+        float minX = (float) (CENTER[i * 3] - sx / 2.0 - cam.x);
+        float minY = (float) (CENTER[i * 3 + 1] - sy / 2.0 - cam.y);
+        float minZ = (float) (CENTER[i * 3 + 2] - sz / 2.0 - cam.z);
+
+        // пульсация треснувших панелей — только вблизи
+        mesh.emit(vc, pose, sprite, minX, minY, minZ, sx, sy, sz,
+                crackLevel, near ? pulse : 0f, CRACK_RGB, LightTexture.FULL_BRIGHT);
     }
 
+    private static void ensureCapacity(int n) {
+        if (n <= ENTITIES.length) return;
+        int cap = Math.max(n, ENTITIES.length * 2);
+        ENTITIES = Arrays.copyOf(ENTITIES, cap);
+        CENTER = Arrays.copyOf(CENTER, cap * 3);
+        SIZE = Arrays.copyOf(SIZE, cap * 3);
+        ORDER = Arrays.copyOf(ORDER, cap);
+    }
 
     private static double interpolate(double prev, double now, float pt) {
         return prev + (now - prev) * pt;
@@ -0,0 +1,81 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.Lauria;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Style;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
+import net.minecraftforge.client.gui.overlay.ForgeGui;
+import net.minecraftforge.client.gui.overlay.VanillaGuiOverlay;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * HUD барьера локального игрока: полосы magic/phys, число стэков и оставшееся время.
+ * Рисуется над полосой брони (левая колонка над хотбаром).
+ *
+ * Данные — из {@link ClientBarrierData} (загрузки полей). Подпись пересобирается только при
+ * изменении числа стэков или целых секунд; на неизменных значениях кадр ничего не аллоцирует.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.MOD
+)
+public final class BarrierHudOverlay {
+    private static final int BAR_WIDTH = 81;   // ширина колонки здоровья
+    private static final int BAR_HEIGHT = 3;
+    private static final int MAGIC_COLOR = 0xFF9B4DFF;
+    private static final int PHYS_COLOR = 0xFFC8C8C8;
+    private static final int BACK_COLOR = 0x80000000;
+    private static final int TEXT_COLOR = 0xFFE0D0FF;
+
+    // кэш подписи: пересобирается только при изменении значений
+    private static int cachedStacks = -1;
+    private static int cachedSeconds = -1;
+    private static FormattedCharSequence cachedLabel = FormattedCharSequence.EMPTY;
+
+    private BarrierHudOverlay() {}
+
+    @SubscribeEvent
+    public static void onRegisterOverlays(RegisterGuiOverlaysEvent event) {
+        event.registerAbove(VanillaGuiOverlay.ARMOR_LEVEL.id(), "barrier_hud", BarrierHudOverlay::render);
+    }
+
+    private static void render(ForgeGui gui, GuiGraphics graphics, float partialTick, int width, int height) {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player == null || mc.options.hideGui || !gui.shouldDrawSurvivalElements()) return;
+
+        int id = mc.player.getId();
+        if (!ClientBarrierData.contains(id)) return;
+
+        int left = width / 2 - 91;
+        int top = height - gui.leftHeight - 2 * (BAR_HEIGHT + 1);
+
+        drawBar(graphics, left, top, (float) ClientBarrierData.getMagicPercent(id), MAGIC_COLOR);
+        drawBar(graphics, left, top + BAR_HEIGHT + 1, (float) ClientBarrierData.getPhysPercent(id), PHYS_COLOR);
+
+        FormattedCharSequence label = label(ClientBarrierData.getStacks(id),
+                (int) ((ClientBarrierData.getRemainingMillis(id) + 999L) / 1000L));
+        graphics.drawString(mc.font, label, left, top - mc.font.lineHeight, TEXT_COLOR, true);
+
+        gui.leftHeight += 2 * (BAR_HEIGHT + 1) + mc.font.lineHeight + 1;
+    }
+
+    private static void drawBar(GuiGraphics graphics, int x, int y, float percent, int color) {
+        int filled = Math.round(BAR_WIDTH * Math.max(0f, Math.min(1f, percent)));
+        graphics.fill(x, y, x + BAR_WIDTH, y + BAR_HEIGHT, BACK_COLOR);
+        if (filled > 0) graphics.fill(x, y, x + filled, y + BAR_HEIGHT, color);
+    }
+
+    private static FormattedCharSequence label(int stacks, int seconds) {
+        if (stacks != cachedStacks || seconds != cachedSeconds) {
+            cachedStacks = stacks;
+            cachedSeconds = seconds;
+            cachedLabel = FormattedCharSequence.forward("x" + stacks + "  " + seconds + "s", Style.EMPTY);
+        }
+        return cachedLabel;
+    }
+}
@@ -1,106 +1,340 @@
 package com.example.arslauria.client;
 
+import com.example.arslauria.registry.ModRegistry;
 import com.example.arslauria.setup.ModEffects;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.world.effect.MobEffectInstance;
 
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 /**
- * ClientBarrierData — теперь хранит expiry и текущие пуулы/max'ы.
+ * ClientBarrierData — клиентский индекс барьеров: оставшееся время, текущие пулы/max'ы и производное состояние.
+ *
+ * Хранение — struct-of-arrays: id сущности -> слот (примитивная карта), поля слота правятся на месте,
+ * слоты плотно упакованы (удаление переносит последний слот на место удалённого).
+ * Производное состояние (оставшееся время, проценты, треск и его уровень) пересчитывается раз в клиентский тик
+ * в {@link #tick(LocalPlayer)} и при изменении записи — чтение за кадр сводится к загрузке поля.
+ *
+ * Время жизни: у локального игрока запись привязана к его MobEffectInstance барьера (vanilla
+ * синхронизирует эффекты только владельцу) и удаляется вместе с эффектом. У остальных сущностей
+ * эффекта на клиенте нет — там длительность из пакета отсчитывается по клиентским тикам.
+ * Выгрузка сущности удаляет запись сразу ({@link #onEntityUnloaded}).
+ *
+ * Все обращения — из клиентского потока (пакеты применяются через enqueueWork).
  */
 public class ClientBarrierData {
-    private static final Map<Integer, Entry> ENTRIES = new ConcurrentHashMap<>();
-
-    private static class Entry {
-        long expiryMillis;
-        int totalMagic;
-        int totalMagicMax;
-        int totalPhys;
-        int totalPhysMax;
-        boolean playedCrackSound; // чтобы проиграть звук один раз при начале треска
-
-        Entry(long expiryMillis, int totalMagic, int totalMagicMax, int totalPhys, int totalPhysMax) {
-            this.expiryMillis = expiryMillis;
-            this.totalMagic = totalMagic;
-            this.totalMagicMax = totalMagicMax;
-            this.totalPhys = totalPhys;
-            this.totalPhysMax = totalPhysMax;
-            this.playedCrackSound = false;
-        }
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int CRACK_TICKS = 3 * 20; // последние 3 секунды
+
+    private static final Int2IntOpenHashMap SLOT_BY_ID = new Int2IntOpenHashMap();
+    static {
+        SLOT_BY_ID.defaultReturnValue(-1);
     }
 
-    public static void add(int entityId, int durationTicks, int totalMagic, int totalMagicMax, int totalPhys, int totalPhysMax) {
-        long expiry = System.currentTimeMillis() + durationTicks * 50L;
-        Entry prev = ENTRIES.get(entityId);
-        Entry e = new Entry(expiry, totalMagic, totalMagicMax, totalPhys, totalPhysMax);
-        ENTRIES.put(entityId, e);
+    // ---- состояние слота ----
+    private static int[] ids = new int[INITIAL_CAPACITY];
+    private static int[] remainingTicks = new int[INITIAL_CAPACITY];
+    private static boolean[] boundToEffect = new boolean[INITIAL_CAPACITY]; // время берётся из MobEffectInstance
+    private static int[] totalMagic = new int[INITIAL_CAPACITY];
+    private static int[] totalMagicMax = new int[INITIAL_CAPACITY];
+    private static int[] totalPhys = new int[INITIAL_CAPACITY];
+    private static int[] totalPhysMax = new int[INITIAL_CAPACITY];
+    private static int[] stacks = new int[INITIAL_CAPACITY];
+    private static boolean[] playedCrackSound = new boolean[INITIAL_CAPACITY]; // чтобы проиграть звук один раз при начале треска
+
+    // ---- производное (раз в тик) ----
+    private static float[] magicPercent = new float[INITIAL_CAPACITY];
+    private static float[] physPercent = new float[INITIAL_CAPACITY];
+    private static boolean[] cracking = new boolean[INITIAL_CAPACITY];
+    private static float[] crackLevel = new float[INITIAL_CAPACITY];
+
+    private static int size = 0;
+
+    // последний применённый seq по сущности (живёт дольше записи — чтобы отбросить запоздавший add после remove)
+    private static final Int2IntOpenHashMap LAST_SEQ = new Int2IntOpenHashMap();
+    // сущности, для которых уже отправлен запрос снимка — не спамим повторными запросами
+    private static final IntOpenHashSet PENDING_RESYNC = new IntOpenHashSet();
+    // сущности, чей барьер снят пакетом удаления: новый барьер начинает seq с большего значения (скачок — не пропуск)
+    private static final IntOpenHashSet ENDED = new IntOpenHashSet();
+
+    /** Результат проверки порядкового номера входящего обновления. */
+    public enum SeqResult {
+        APPLY,  // следующее по порядку (или снимок) — применить
+        STALE,  // старое/дубликат или ждём снимок — отбросить
+        GAP     // пропуск — отбросить и запросить снимок
+    }
+
+    public static void add(int entityId, int durationTicks, int magic, int magicMax, int phys, int physMax, int stackCount) {
+        int slot = SLOT_BY_ID.get(entityId);
+        boolean existed = slot >= 0;
+        boolean wasCracking = existed && cracking[slot];
+
+        if (!existed) {
+            slot = allocate(entityId);
+        }
+        // пока не привязаны к эффекту — отсчитываем длительность из пакета
+        if (!boundToEffect[slot]) remainingTicks[slot] = durationTicks;
+        totalMagic[slot] = magic;
+        totalMagicMax[slot] = magicMax;
+        totalPhys[slot] = phys;
+        totalPhysMax[slot] = physMax;
+        stacks[slot] = stackCount;
+        derive(slot);
+        // звук треска остаётся «сыгранным», пока запись продолжает трескаться
+        playedCrackSound[slot] = existed && playedCrackSound[slot] && cracking[slot];
 
         // Если только что стал в крэкинге — проиграть локальный звук (если есть игрок)
-        boolean wasCracking = prev != null && isCrackingEntry(prev);
-        boolean nowCracking = isCrackingEntry(e);
-        if (!wasCracking && nowCracking) {
+        playCrackSoundIfStarted(wasCracking, slot);
+
+        // предсказания, сделанные после этого обновления, накладываются заново; более ранние — отбрасываются
+        ClientBarrierPrediction.onAuthoritative(entityId, getLastSeq(entityId));
+    }
+
+    /**
+     * Предсказанное поглощение урона на локальной копии (до прихода авторитетного {@link #add}).
+     * Правила те же, что у сервера: урон уходит в выбранный пул, но не больше его остатка.
+     * Пакет от сервера перезаписывает запись; какие предсказания после этого наложить заново,
+     * решает {@link ClientBarrierPrediction} по seq.
+     *
+     * @return сколько урона поглощено по предсказанию
+     */
+    public static float applyPredictedAbsorb(int entityId, boolean phys, float amount) {
+        int slot = SLOT_BY_ID.get(entityId);
+        if (slot < 0 || amount <= 0f) return 0f;
+
+        boolean wasCracking = cracking[slot];
+        int pool = phys ? totalPhys[slot] : totalMagic[slot];
+        int absorbed = Math.min(Math.max(0, pool), (int) Math.ceil(amount));
+        if (phys) {
+            totalPhys[slot] -= absorbed;
+        } else {
+            totalMagic[slot] -= absorbed;
+        }
+        derive(slot);
+        playCrackSoundIfStarted(wasCracking, slot);
+        return absorbed;
+    }
+
+    private static void playCrackSoundIfStarted(boolean wasCracking, int slot) {
+        if (!wasCracking && cracking[slot] && !playedCrackSound[slot]) {
             // локальный звук для владельца клиента
             try {
                 Minecraft mc = Minecraft.getInstance();
                 if (mc.player != null) {
-                    mc.player.playSound(net.minecraft.sounds.SoundEvents.GLASS_BREAK, 1.0F, 1.0F);
-                    e.playedCrackSound = true;
+                    mc.player.playSound(ModRegistry.BARRIER_BREAK.get(), 1.0F, 1.0F);
+                    playedCrackSound[slot] = true;
                 }
             } catch (Throwable t) { /* ignore */ }
         }
     }
 
-    public static void remove(int entityId) { ENTRIES.remove(entityId); }
+    /**
+     * Проверяет seq входящего обновления для сущности и запоминает его, если пакет нужно применить.
+     * Первое обновление для неизвестной сущности принимается с любым seq.
+     */
+    public static SeqResult acceptSequence(int entityId, int seq, boolean snapshot) {
+        boolean known = LAST_SEQ.containsKey(entityId);
+        int last = LAST_SEQ.get(entityId);
+        if (snapshot) {
+            PENDING_RESYNC.remove(entityId);
+            ENDED.remove(entityId);
+            if (known && seq < last) return SeqResult.STALE;
+            LAST_SEQ.put(entityId, seq);
+            return SeqResult.APPLY;
+        }
+        if (!known) {
+            LAST_SEQ.put(entityId, seq);
+            return SeqResult.APPLY;
+        }
+        if (PENDING_RESYNC.contains(entityId)) return SeqResult.STALE; // ждём снимок
+        if (seq <= last) return SeqResult.STALE;
+        if (ENDED.remove(entityId)) {
+            LAST_SEQ.put(entityId, seq);
+            return SeqResult.APPLY;
+        }
+        if (seq == last + 1) {
+            LAST_SEQ.put(entityId, seq);
+            return SeqResult.APPLY;
+        }
+        PENDING_RESYNC.add(entityId);
+        return SeqResult.GAP;
+    }
 
-    public static boolean contains(int entityId) {
-        Entry e = ENTRIES.get(entityId);
-        if (e == null) return false;
-        if (e.expiryMillis < System.currentTimeMillis()) {
-            ENTRIES.remove(entityId);
-            return false;
+    /** Барьер сущности снят пакетом удаления (seq уже принят). */
+    public static void markEnded(int entityId) {
+        ENDED.add(entityId);
+    }
+
+    /** Последний принятый seq для сущности; -1 — обновлений ещё не было. */
+    public static int getLastSeq(int entityId) {
+        return LAST_SEQ.containsKey(entityId) ? LAST_SEQ.get(entityId) : -1;
+    }
+
+    public static void remove(int entityId) {
+        ClientBarrierPrediction.forget(entityId);
+        int slot = SLOT_BY_ID.remove(entityId);
+        if (slot < 0) return;
+        int last = --size;
+        if (slot != last) {
+            moveSlot(last, slot);
+            SLOT_BY_ID.put(ids[slot], slot);
         }
-        return true;
     }
 
-    public static Set<Integer> getEntities() {
-        return java.util.Collections.unmodifiableSet(ENTRIES.keySet());
+    /**
+     * Раз в клиентский тик: обновить оставшееся время (из эффекта локального игрока или обратным
+     * отсчётом), удалить закончившиеся записи и пересчитать производное состояние.
+     */
+    public static void tick(LocalPlayer player) {
+        int playerSlot = player != null ? SLOT_BY_ID.get(player.getId()) : -1;
+        if (playerSlot >= 0) {
+            MobEffectInstance effect = player.getEffect(ModEffects.BARRIER.get());
+            if (effect != null) {
+                remainingTicks[playerSlot] = effect.getDuration();
+                boundToEffect[playerSlot] = true;
+            } else if (boundToEffect[playerSlot]) {
+                // эффект снят — запись больше не нужна (пакет add мог прийти раньше эффекта, поэтому только после привязки)
+                remove(player.getId());
+            }
+        }
+
+        for (int slot = size - 1; slot >= 0; slot--) {
+            if (!boundToEffect[slot] && --remainingTicks[slot] <= 0) {
+                remove(ids[slot]);
+                continue;
+            }
+            derive(slot);
+        }
+    }
+
+    /** Сущность выгружена на клиенте: запись и seq забываем; при повторном отслеживании сервер пришлёт снимок. */
+    public static void onEntityUnloaded(int entityId) {
+        remove(entityId);
+        LAST_SEQ.remove(entityId);
+        PENDING_RESYNC.remove(entityId);
+        ENDED.remove(entityId);
+    }
+
+    public static boolean contains(int entityId) {
+        return SLOT_BY_ID.containsKey(entityId);
+    }
+
+    /**
+     * Обход активных барьеров — основной источник для клиентского рендера.
+     * Стоимость пропорциональна числу барьеров, а не числу сущностей вокруг.
+     */
+    public static void forEachActive(IntConsumer action) {
+        for (int slot = 0; slot < size; slot++) {
+            action.accept(ids[slot]);
+        }
     }
 
     public static long getRemainingMillis(int entityId) {
-        Entry e = ENTRIES.get(entityId);
-        return e == null ? 0L : (e.expiryMillis - System.currentTimeMillis());
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot < 0 ? 0L : remainingTicks[slot] * 50L;
+    }
+
+    public static int getStacks(int entityId) {
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot < 0 ? 0 : stacks[slot];
     }
 
     // проценты 0..1
     public static double getMagicPercent(int entityId) {
-        Entry e = ENTRIES.get(entityId);
-        if (e == null || e.totalMagicMax <= 0) return 1.0;
-        return (double) Math.max(0, e.totalMagic) / (double) e.totalMagicMax;
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot < 0 ? 1.0 : magicPercent[slot];
     }
     public static double getPhysPercent(int entityId) {
-        Entry e = ENTRIES.get(entityId);
-        if (e == null || e.totalPhysMax <= 0) return 1.0;
-        return (double) Math.max(0, e.totalPhys) / (double) e.totalPhysMax;
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot < 0 ? 1.0 : physPercent[slot];
     }
 
     // основной критерий треска
     public static boolean isCracking(int entityId) {
-        Entry e = ENTRIES.get(entityId);
-        if (e == null) return false;
-        return isCrackingEntry(e);
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot >= 0 && cracking[slot];
+    }
+
+    /**
+     * Доля треснувших панелей купола 0..1: растёт по мере истощения слабейшего пула (от 25% до нуля)
+     * и в последние 3 секунды действия; в момент начала треска — хотя бы несколько панелей.
+     */
+    public static float getCrackLevel(int entityId) {
+        int slot = SLOT_BY_ID.get(entityId);
+        return slot < 0 ? 0f : crackLevel[slot];
+    }
+
+    public static void clear() {
+        SLOT_BY_ID.clear();
+        size = 0;
+        LAST_SEQ.clear();
+        PENDING_RESYNC.clear();
+        ENDED.clear();
+    }
+
+    public static int size() { return size; }
+
+    /* ======= слоты ======= */
+
+    private static void derive(int slot) {
+        float magicPct = totalMagicMax[slot] > 0 ? (float) Math.max(0, totalMagic[slot]) / totalMagicMax[slot] : 1f;
+        float physPct = totalPhysMax[slot] > 0 ? (float) Math.max(0, totalPhys[slot]) / totalPhysMax[slot] : 1f;
+        magicPercent[slot] = magicPct;
+        physPercent[slot] = physPct;
+        // последние 3 секунды или любой пул <= 25%
+        cracking[slot] = remainingTicks[slot] <= CRACK_TICKS || magicPct <= 0.25f || physPct <= 0.25f;
+        if (cracking[slot]) {
+            float byPool = (0.25f - Math.min(magicPct, physPct)) / 0.25f;
+            float byTime = (float) (CRACK_TICKS - remainingTicks[slot]) / CRACK_TICKS;
+            crackLevel[slot] = Math.min(1f, Math.max(0.15f, Math.max(byPool, byTime)));
+        } else {
+            crackLevel[slot] = 0f;
+        }
     }
 
-    private static boolean isCrackingEntry(Entry e) {
-        long rem = e.expiryMillis - System.currentTimeMillis();
-        if (rem <= 3000L) return true; // последние 3 секунды
-        if (e.totalMagicMax > 0 && ((double) Math.max(0, e.totalMagic) / e.totalMagicMax) <= 0.25) return true;
-        if (e.totalPhysMax > 0 && ((double) Math.max(0, e.totalPhys) / e.totalPhysMax) <= 0.25) return true;
-        return false;
+    private static int allocate(int entityId) {
+        if (size == ids.length) grow(size * 2);
+        int slot = size++;
+        ids[slot] = entityId;
+        playedCrackSound[slot] = false;
+        boundToEffect[slot] = false;
+        SLOT_BY_ID.put(entityId, slot);
+        return slot;
     }
 
-    public static void clear() { ENTRIES.clear(); }
+    private static void moveSlot(int from, int to) {
+        ids[to] = ids[from];
+        remainingTicks[to] = remainingTicks[from];
+        boundToEffect[to] = boundToEffect[from];
+        totalMagic[to] = totalMagic[from];
+        totalMagicMax[to] = totalMagicMax[from];
+        totalPhys[to] = totalPhys[from];
+        totalPhysMax[to] = totalPhysMax[from];
+        stacks[to] = stacks[from];
+        playedCrackSound[to] = playedCrackSound[from];
+        magicPercent[to] = magicPercent[from];
+        physPercent[to] = physPercent[from];
+        cracking[to] = cracking[from];
+        crackLevel[to] = crackLevel[from];
+    }
 
-    public static int size() { return ENTRIES.size(); }
+    private static void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        remainingTicks = Arrays.copyOf(remainingTicks, capacity);
+        boundToEffect = Arrays.copyOf(boundToEffect, capacity);
+        totalMagic = Arrays.copyOf(totalMagic, capacity);
+        totalMagicMax = Arrays.copyOf(totalMagicMax, capacity);
+        totalPhys = Arrays.copyOf(totalPhys, capacity);
+        totalPhysMax = Arrays.copyOf(totalPhysMax, capacity);
+        stacks = Arrays.copyOf(stacks, capacity);
+        playedCrackSound = Arrays.copyOf(playedCrackSound, capacity);
+        magicPercent = Arrays.copyOf(magicPercent, capacity);
+        physPercent = Arrays.copyOf(physPercent, capacity);
+        cracking = Arrays.copyOf(cracking, capacity);
+        crackLevel = Arrays.copyOf(crackLevel, capacity);
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.arslauria.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Клиентские события индекса барьеров: тик ({@link ClientBarrierData#tick}), выгрузка сущности
+ * и выход с сервера. Периодического сканирования нет — записи удаляются по событиям.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class ClientBarrierEvents {
+
+    /** Частицы эффекта барьера (BarrierEffect#applyEffectTick на клиенте) — через общий бюджет частиц. */
+    public static void spawnEffectParticles(LivingEntity entity) {
+        double x = entity.getX();
+        double y = entity.getY() + entity.getBbHeight() * 0.5;
+        double z = entity.getZ();
+        ClientParticleBudget.request(
+                ParticleTypes.ENCHANT,
+                x + ClientParticleBudget.jitter(1.0),
+                y + ClientParticleBudget.jitter(1.0),
+                z + ClientParticleBudget.jitter(1.0),
+                0, 0, 0,
+                true
+        );
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.level == null) return;
+
+        ClientBarrierData.tick(mc.player);
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!event.getLevel().isClientSide()) return;
+        ClientBarrierData.onEntityUnloaded(event.getEntity().getId());
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        // id сущностей и seq привязаны к серверу — при выходе сбрасываем всё
+        ClientBarrierData.clear();
+        ClientBarrierPrediction.reset();
+    }
+}
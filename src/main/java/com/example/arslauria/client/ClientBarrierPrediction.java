@@ -0,0 +1,90 @@
+package com.example.arslauria.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.entity.projectile.Projectile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Клиентское предсказание поглощения урона барьером локального игрока.
+ *
+ * Клиент не знает величину урона (в пакете урона её нет), поэтому предсказывается только ближний бой:
+ * ATTACK_DAMAGE атакующего (атрибут есть и на клиенте) уходит в физический пул, как в серверном onLivingHurt.
+ * Для остального урона оценки нет — ждём сервер.
+ *
+ * Порядок прихода: vanilla отправляет ClientboundDamageEventPacket сразу, а BarrierSyncPacket с
+ * результатом того же удара уходит через OutboundBus в конце серверного тика — событие урона всегда
+ * приходит раньше. Поэтому каждый наблюдаемый удар предсказывается сразу, с запоминанием seq,
+ * принятого на этот момент. Авторитетное обновление перезаписывает пулы; предсказания, сделанные
+ * до него (seq обновления больше запомненного), отбрасываются, остальные накладываются заново.
+ */
+public final class ClientBarrierPrediction {
+    private record Pending(int entityId, int baseSeq, float amount) {}
+
+    // предсказания, ещё не покрытые авторитетным обновлением
+    private static final List<Pending> PENDING = new ArrayList<>();
+
+    private ClientBarrierPrediction() {}
+
+    /**
+     * Вызывается, когда клиент увидел событие урона по сущности (LivingEntity#handleDamageEvent).
+     */
+    public static void onDamageObserved(LivingEntity entity, DamageSource src) {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player == null || entity != mc.player) return;
+        if (src == null || !ClientBarrierData.contains(entity.getId())) return;
+
+        // melee: direct entity is LivingEntity and not a Projectile (как на сервере)
+        boolean isMelee = src.getDirectEntity() instanceof LivingEntity
+                && !(src.getDirectEntity() instanceof Projectile);
+        if (!isMelee) return;
+
+        float estimate = estimateMelee(src);
+        if (estimate <= 0f) return;
+
+        int baseSeq = ClientBarrierData.getLastSeq(entity.getId());
+        if (ClientBarrierData.applyPredictedAbsorb(entity.getId(), true, estimate) > 0f) {
+            PENDING.add(new Pending(entity.getId(), baseSeq, estimate));
+        }
+    }
+
+    /**
+     * Авторитетное обновление записи применено (пулы перезаписаны): предсказания с seq меньше
+     * принятого отбрасываются, остальные накладываются на новые значения.
+     */
+    static void onAuthoritative(int entityId, int seq) {
+        if (PENDING.isEmpty()) return;
+        for (int i = 0; i < PENDING.size(); ) {
+            Pending p = PENDING.get(i);
+            if (p.entityId() == entityId && seq > p.baseSeq()) {
+                PENDING.remove(i);
+                continue;
+            }
+            if (p.entityId() == entityId) {
+                ClientBarrierData.applyPredictedAbsorb(entityId, true, p.amount());
+            }
+            i++;
+        }
+    }
+
+    /** Запись барьера удалена — её предсказания больше не нужны. */
+    static void forget(int entityId) {
+        if (!PENDING.isEmpty()) PENDING.removeIf(p -> p.entityId() == entityId);
+    }
+
+    private static float estimateMelee(DamageSource src) {
+        if (src.getDirectEntity() instanceof LivingEntity attacker
+                && attacker.getAttributes().hasAttribute(Attributes.ATTACK_DAMAGE)) {
+            return (float) attacker.getAttributeValue(Attributes.ATTACK_DAMAGE);
+        }
+        return 0f;
+    }
+
+    public static void reset() {
+        PENDING.clear();
+    }
+}
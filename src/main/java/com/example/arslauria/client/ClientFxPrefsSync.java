@@ -0,0 +1,41 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.ClientConfig;
+import com.example.arslauria.Lauria;
+import com.example.arslauria.network.ClientFxPrefsPacket;
+import com.example.arslauria.network.NetworkHandler;
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Отправка FX-предпочтений клиента на сервер: при входе в мир и при изменении клиентского конфига.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.FORGE
+)
+public class ClientFxPrefsSync {
+
+    @SubscribeEvent
+    public static void onLoggingIn(ClientPlayerNetworkEvent.LoggingIn event) {
+        send();
+    }
+
+    /**
+     * То же из любого потока: ModConfigEvent.Reloading приходит из потока наблюдения за файлами конфига,
+     * а отправка пакетов — только из клиентского.
+     */
+    public static void sendOnClientThread() {
+        Minecraft.getInstance().execute(ClientFxPrefsSync::send);
+    }
+
+    /** Отправить текущие предпочтения, если клиент подключён к серверу. */
+    public static void send() {
+        if (Minecraft.getInstance().getConnection() == null) return;
+        NetworkHandler.sendToServer(new ClientFxPrefsPacket(ClientConfig.fxPreferences()));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.ClientConfig;
+import com.example.arslauria.Lauria;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Общий клиентский бюджет частиц ArsLauria (барьер, трещины купола, аура).
+ *
+ * Источники не спавнят частицы сами, а ставят запросы через {@link #request}; раз в кадр
+ * (начало RenderTickEvent) очередь сортируется по расстоянию до камеры и спавнится не больше
+ * {@code fx.particleBudget} ближайших, остальное отбрасывается. Уровень частиц из клиентского
+ * конфига применяется здесь же: NONE — ничего, MINIMAL — без косметических.
+ *
+ * Поштучный троттлинг по сущности ({@link #throttle}) ведётся отдельно для каждого источника
+ * ({@link Channel}) и освобождается при выгрузке сущности.
+ * Все обращения — из клиентского потока.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.FORGE
+)
+public final class ClientParticleBudget {
+    // жёсткий предел очереди, если кадры не идут (пауза, загрузка)
+    private static final int QUEUE_LIMIT = 2048;
+
+    private static ParticleOptions[] types = new ParticleOptions[64];
+    private static double[] coords = new double[64 * 6]; // x,y,z,dx,dy,dz
+    private static long[] order = new long[64];
+    private static int count;
+
+    /** Источник частиц со своим таймером троттлинга — источники не сбивают интервалы друг друга. */
+    public enum Channel {
+        DOME_CRACK,
+        AURA
+    }
+
+    // по каналу: id сущности -> время последнего разрешённого спавна (мс)
+    private static final Int2LongOpenHashMap[] LAST_EMIT = new Int2LongOpenHashMap[Channel.values().length];
+    static {
+        for (int i = 0; i < LAST_EMIT.length; i++) LAST_EMIT[i] = new Int2LongOpenHashMap();
+    }
+
+    private ClientParticleBudget() {}
+
+    /**
+     * Поставить частицу в очередь кадра.
+     *
+     * @param cosmetic дополнительная частица (не получают игроки с particles=MINIMAL)
+     */
+    public static void request(ParticleOptions type, double x, double y, double z,
+                               double dx, double dy, double dz, boolean cosmetic) {
+        if (!ClientConfig.PARTICLES.get().allows(cosmetic)) return;
+        if (count >= QUEUE_LIMIT) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        Vec3 cam = mc.gameRenderer.getMainCamera().getPosition();
+        double ox = x - cam.x, oy = y - cam.y, oz = z - cam.z;
+        float distSq = (float) (ox * ox + oy * oy + oz * oz);
+
+        ensureCapacity(count + 1);
+        int i = count++;
+        types[i] = type;
+        int c = i * 6;
+        coords[c] = x;
+        coords[c + 1] = y;
+        coords[c + 2] = z;
+        coords[c + 3] = dx;
+        coords[c + 4] = dy;
+        coords[c + 5] = dz;
+        // ключ сортировки: биты неотрицательного float монотонны, в младших 32 битах — индекс
+        order[i] = ((long) Float.floatToIntBits(distSq) << 32) | i;
+    }
+
+    /**
+     * Троттлинг по сущности в канале: true, если с прошлого разрешённого спавна этого канала
+     * прошло не меньше intervalMillis.
+     */
+    public static boolean throttle(Channel channel, int entityId, long intervalMillis) {
+        Int2LongOpenHashMap lastEmit = LAST_EMIT[channel.ordinal()];
+        long now = System.currentTimeMillis();
+        long last = lastEmit.getOrDefault(entityId, Long.MIN_VALUE);
+        if (last != Long.MIN_VALUE && now - last < intervalMillis) return false;
+        lastEmit.put(entityId, now);
+        return true;
+    }
+
+    /** Случайное смещение в [-spread/2, spread/2). */
+    public static double jitter(double spread) {
+        return (ThreadLocalRandom.current().nextDouble() - 0.5) * spread;
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || count == 0) return;
+
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.level != null && !mc.isPaused()) {
+            // ближние первыми; не больше бюджета кадра
+            Arrays.sort(order, 0, count);
+            int limit = Math.min(count, ClientConfig.PARTICLE_BUDGET.get());
+            for (int k = 0; k < limit; k++) {
+                int i = (int) order[k];
+                int c = i * 6;
+                mc.level.addParticle(types[i], coords[c], coords[c + 1], coords[c + 2],
+                        coords[c + 3], coords[c + 4], coords[c + 5]);
+            }
+            if (RenderStats.enabled) RenderStats.recordParticles(limit, count - limit);
+        }
+        Arrays.fill(types, 0, count, null);
+        count = 0;
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!event.getLevel().isClientSide()) return;
+        int id = event.getEntity().getId();
+        for (Int2LongOpenHashMap lastEmit : LAST_EMIT) lastEmit.remove(id);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        for (Int2LongOpenHashMap lastEmit : LAST_EMIT) lastEmit.clear();
+        Arrays.fill(types, 0, count, null);
+        count = 0;
+    }
+
+    private static void ensureCapacity(int n) {
+        if (n <= types.length) return;
+        int cap = Math.max(n, types.length * 2);
+        types = Arrays.copyOf(types, cap);
+        coords = Arrays.copyOf(coords, cap * 6);
+        order = Arrays.copyOf(order, cap);
+    }
+}
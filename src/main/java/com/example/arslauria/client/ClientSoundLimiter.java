@@ -0,0 +1,152 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.ClientConfig;
+import com.example.arslauria.Lauria;
+import com.example.arslauria.registry.ModRegistry;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.sound.PlaySoundEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+
+/**
+ * Клиентский ограничитель звуков барьера и взрыва.
+ *
+ * Ограничиваются только собственные события мода ({@code arslauria:barrier_break}, {@code arslauria:blast});
+ * ванильные стекло и взрывы (TNT, криперы) не трогаются. Два правила:
+ * <ul>
+ *   <li>слияние: тот же звук в пределах {@link #MERGE_WINDOW_MS} и {@link #MERGE_DISTANCE} блоков
+ *   от уже запущенного не проигрывается;</li>
+ *   <li>лимит голосов: одновременно играет не больше {@code fx.maxSoundVoices} таких звуков; при
+ *   переполнении вытесняется голос с меньшим приоритетом (при равном — дальний от камеры),
+ *   а если такого нет — новый звук отбрасывается.</li>
+ * </ul>
+ * Остальные звуки не трогаются. Все обращения — из клиентского потока.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.FORGE
+)
+public final class ClientSoundLimiter {
+    private static final long MERGE_WINDOW_MS = 80L;
+    private static final double MERGE_DISTANCE = 3.0;
+    private static final int MAX_TRACKED = 64;
+
+    // ограничиваемые звуки и их приоритет (больше — важнее)
+    private static final ResourceLocation[] LIMITED = {
+            ModRegistry.BARRIER_BREAK.getId(),
+            ModRegistry.BLAST.getId()
+    };
+    private static final int[] PRIORITY = {1, 2};
+
+    // запущенные голоса (переиспользуемые массивы; неактивные вычищаются при каждом звуке)
+    private static final SoundInstance[] VOICES = new SoundInstance[MAX_TRACKED];
+    private static final int[] VOICE_KIND = new int[MAX_TRACKED];
+    private static final long[] VOICE_START = new long[MAX_TRACKED];
+    private static int voiceCount;
+
+    private ClientSoundLimiter() {}
+
+    @SubscribeEvent
+    public static void onPlaySound(PlaySoundEvent event) {
+        SoundInstance sound = event.getSound();
+        if (sound == null) return;
+        int kind = kindOf(sound.getLocation());
+        if (kind < 0) return;
+
+        SoundManager manager = Minecraft.getInstance().getSoundManager();
+        long now = System.currentTimeMillis();
+        prune(manager);
+
+        // 1) слияние с недавним таким же звуком рядом
+        double mergeSq = MERGE_DISTANCE * MERGE_DISTANCE;
+        for (int i = 0; i < voiceCount; i++) {
+            if (VOICE_KIND[i] != kind || now - VOICE_START[i] > MERGE_WINDOW_MS) continue;
+            if (distSq(VOICES[i], sound.getX(), sound.getY(), sound.getZ()) <= mergeSq) {
+                event.setSound(null);
+                return;
+            }
+        }
+
+        // 2) лимит голосов по приоритету
+        int maxVoices = Math.min(MAX_TRACKED, ClientConfig.MAX_SOUND_VOICES.get());
+        if (voiceCount >= maxVoices) {
+            int victim = weakest();
+            if (!outranks(kind, sound, victim)) {
+                event.setSound(null);
+                return;
+            }
+            manager.stop(VOICES[victim]);
+            removeAt(victim);
+        }
+
+        int i = voiceCount++;
+        VOICES[i] = sound;
+        VOICE_KIND[i] = kind;
+        VOICE_START[i] = now;
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        Arrays.fill(VOICES, 0, voiceCount, null);
+        voiceCount = 0;
+    }
+
+    private static int kindOf(ResourceLocation location) {
+        for (int k = 0; k < LIMITED.length; k++) {
+            if (LIMITED[k].equals(location)) return k;
+        }
+        return -1;
+    }
+
+    /** Убрать доигравшие голоса (после слияния окно ещё учитывается, пока голос активен). */
+    private static void prune(SoundManager manager) {
+        for (int i = voiceCount - 1; i >= 0; i--) {
+            if (!manager.isActive(VOICES[i])) removeAt(i);
+        }
+    }
+
+    /** Голос с наименьшим приоритетом; при равном — дальний от камеры. */
+    private static int weakest() {
+        int worst = 0;
+        for (int i = 1; i < voiceCount; i++) {
+            int p = PRIORITY[VOICE_KIND[i]], pw = PRIORITY[VOICE_KIND[worst]];
+            if (p < pw || (p == pw && cameraDistSq(VOICES[i]) > cameraDistSq(VOICES[worst]))) worst = i;
+        }
+        return worst;
+    }
+
+    private static boolean outranks(int kind, SoundInstance sound, int victim) {
+        int p = PRIORITY[kind], pv = PRIORITY[VOICE_KIND[victim]];
+        if (p != pv) return p > pv;
+        return cameraDistSq(sound) < cameraDistSq(VOICES[victim]);
+    }
+
+    private static void removeAt(int i) {
+        int last = --voiceCount;
+        VOICES[i] = VOICES[last];
+        VOICE_KIND[i] = VOICE_KIND[last];
+        VOICE_START[i] = VOICE_START[last];
+        VOICES[last] = null;
+    }
+
+    private static double cameraDistSq(SoundInstance sound) {
+        // относительные звуки (UI, локальные) — «у камеры»
+        if (sound.isRelative()) return 0.0;
+        Vec3 cam = Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+        return distSq(sound, cam.x, cam.y, cam.z);
+    }
+
+    private static double distSq(SoundInstance sound, double x, double y, double z) {
+        double dx = sound.getX() - x, dy = sound.getY() - y, dz = sound.getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
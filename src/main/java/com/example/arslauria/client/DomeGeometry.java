@@ -0,0 +1,304 @@
+package com.example.arslauria.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Генератор геометрии купола — чистая Java без классов Minecraft (проверяется без клиента).
+ *
+ * Все формы вписаны в unit-cube [0..1]^3 и выдаются развёрнутым списком квадов (по 4 вершины;
+ * треугольник — квад с повторённой последней вершиной), как того ждёт формат сущностей.
+ * На вершину: позиция, нормаль, UV грани 0..1 и порог трещины 0..1 — при уровне трещин
+ * выше порога вершина считается треснувшей (одинаковый порог у всей панели/треугольника).
+ *
+ * Формы:
+ *  - CUBE   — полый куб из 6 граней;
+ *  - SPHERE — икосфера с заданным числом подразбиений;
+ *  - HEX    — сфера из шести-/пятиугольных панелей (дуал икосферы, как у многогранника Голдберга).
+ */
+public final class DomeGeometry {
+
+    public enum Shape { CUBE, SPHERE, HEX }
+
+    // зазор между панелями HEX (доля от радиуса панели)
+    private static final float PANEL_INSET = 0.92f;
+
+    public final float[] positions; // x,y,z
+    public final float[] normals;   // nx,ny,nz
+    public final float[] uvs;       // u,v в 0..1
+    public final float[] crack;     // порог трещины 0..1
+    public final int vertexCount;
+
+    private DomeGeometry(Builder b) {
+        this.vertexCount = b.count;
+        this.positions = b.pos.toArray();
+        this.normals = b.nrm.toArray();
+        this.uvs = b.uv.toArray();
+        this.crack = b.crack.toArray();
+    }
+
+    /**
+     * @param detail      число подразбиений икосферы (для CUBE не используется)
+     * @param thickness   толщина оболочки в долях unit-cube
+     * @param innerShell  добавить внутреннюю сторону (видна изнутри и сквозь дальнюю стенку)
+     */
+    public static DomeGeometry build(Shape shape, int detail, float thickness, boolean innerShell) {
+        Builder b = new Builder();
+        switch (shape) {
+            case CUBE -> cube(b);
+            case SPHERE -> sphere(b, icosphere(detail));
+            case HEX -> hex(b, icosphere(detail));
+        }
+        if (innerShell) b.addInnerShell(thickness);
+        return new DomeGeometry(b);
+    }
+
+    /* ======= куб ======= */
+
+    private static void cube(Builder b) {
+        int face = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            for (int side = 0; side < 2; side++) {
+                int ua = (axis + 1) % 3;
+                int va = (axis + 2) % 3;
+                float facing = side == 0 ? -1f : 1f;
+                float threshold = hash01(face++);
+                float[][] corners = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+                // обход (u, v) даёт нормаль +axis; для -axis идём в обратную сторону
+                for (int i = 0; i < 4; i++) {
+                    float[] c = corners[facing < 0 ? 3 - i : i];
+                    float[] p = new float[3];
+                    float[] n = new float[3];
+                    p[axis] = side;
+                    p[ua] = c[0];
+                    p[va] = c[1];
+                    n[axis] = facing;
+                    b.vertex(p[0], p[1], p[2], n[0], n[1], n[2], c[0], 1f - c[1], threshold);
+                }
+            }
+        }
+    }
+
+    /* ======= икосфера ======= */
+
+    /** Единичная икосфера: вершины (нормализованы) и треугольники (обход наружу). */
+    record Mesh(List<float[]> vertices, List<int[]> triangles) {}
+
+    static Mesh icosphere(int detail) {
+        float t = (float) ((1.0 + Math.sqrt(5.0)) / 2.0);
+        List<float[]> v = new ArrayList<>();
+        float[][] base = {
+                {-1, t, 0}, {1, t, 0}, {-1, -t, 0}, {1, -t, 0},
+                {0, -1, t}, {0, 1, t}, {0, -1, -t}, {0, 1, -t},
+                {t, 0, -1}, {t, 0, 1}, {-t, 0, -1}, {-t, 0, 1}
+        };
+        for (float[] p : base) v.add(normalize(p));
+
+        List<int[]> tris = new ArrayList<>(List.of(
+                new int[]{0, 11, 5}, new int[]{0, 5, 1}, new int[]{0, 1, 7}, new int[]{0, 7, 10}, new int[]{0, 10, 11},
+                new int[]{1, 5, 9}, new int[]{5, 11, 4}, new int[]{11, 10, 2}, new int[]{10, 7, 6}, new int[]{7, 1, 8},
+                new int[]{3, 9, 4}, new int[]{3, 4, 2}, new int[]{3, 2, 6}, new int[]{3, 6, 8}, new int[]{3, 8, 9},
+                new int[]{4, 9, 5}, new int[]{2, 4, 11}, new int[]{6, 2, 10}, new int[]{8, 6, 7}, new int[]{9, 8, 1}
+        ));
+
+        for (int level = 0; level < detail; level++) {
+            Map<Long, Integer> midpoints = new HashMap<>();
+            List<int[]> next = new ArrayList<>(tris.size() * 4);
+            for (int[] tri : tris) {
+                int a = midpoint(v, midpoints, tri[0], tri[1]);
+                int b = midpoint(v, midpoints, tri[1], tri[2]);
+                int c = midpoint(v, midpoints, tri[2], tri[0]);
+                next.add(new int[]{tri[0], a, c});
+                next.add(new int[]{tri[1], b, a});
+                next.add(new int[]{tri[2], c, b});
+                next.add(new int[]{a, b, c});
+            }
+            tris = next;
+        }
+
+        // обход наружу: нормаль треугольника смотрит от центра
+        for (int[] tri : tris) {
+            float[] a = v.get(tri[0]), b = v.get(tri[1]), c = v.get(tri[2]);
+            float[] n = cross(sub(b, a), sub(c, a));
+            if (dot(n, a) + dot(n, b) + dot(n, c) < 0f) {
+                int tmp = tri[1];
+                tri[1] = tri[2];
+                tri[2] = tmp;
+            }
+        }
+        return new Mesh(v, tris);
+    }
+
+    private static int midpoint(List<float[]> v, Map<Long, Integer> cache, int i, int j) {
+        long key = i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+        Integer cached = cache.get(key);
+        if (cached != null) return cached;
+        float[] a = v.get(i), b = v.get(j);
+        v.add(normalize(new float[]{(a[0] + b[0]) / 2f, (a[1] + b[1]) / 2f, (a[2] + b[2]) / 2f}));
+        int idx = v.size() - 1;
+        cache.put(key, idx);
+        return idx;
+    }
+
+    private static void sphere(Builder b, Mesh mesh) {
+        int tri = 0;
+        for (int[] t : mesh.triangles()) {
+            float threshold = hash01(tri++);
+            float[] p0 = mesh.vertices().get(t[0]);
+            float[] p1 = mesh.vertices().get(t[1]);
+            float[] p2 = mesh.vertices().get(t[2]);
+            b.sphereVertex(p0, 0f, 0f, threshold);
+            b.sphereVertex(p1, 1f, 0f, threshold);
+            b.sphereVertex(p2, 0.5f, 1f, threshold);
+            b.sphereVertex(p2, 0.5f, 1f, threshold); // треугольник как вырожденный квад
+        }
+    }
+
+    /* ======= шестигранные панели ======= */
+
+    private static void hex(Builder b, Mesh mesh) {
+        List<float[]> v = mesh.vertices();
+        List<List<float[]>> around = new ArrayList<>(v.size());
+        for (int i = 0; i < v.size(); i++) around.add(new ArrayList<>(6));
+
+        // углы панели — центры смежных треугольников
+        for (int[] t : mesh.triangles()) {
+            float[] a = v.get(t[0]), bb = v.get(t[1]), c = v.get(t[2]);
+            float[] centroid = normalize(new float[]{a[0] + bb[0] + c[0], a[1] + bb[1] + c[1], a[2] + bb[2] + c[2]});
+            for (int k : t) around.get(k).add(centroid);
+        }
+
+        for (int i = 0; i < v.size(); i++) {
+            float[] n = v.get(i);
+            // касательный базис: t2 = n x t1, так что рост угла — против часовой стрелки снаружи
+            float[] t1 = normalize(cross(Math.abs(n[1]) < 0.9f ? new float[]{0, 1, 0} : new float[]{1, 0, 0}, n));
+            float[] t2 = cross(n, t1);
+
+            List<float[]> corners = around.get(i);
+            int m = corners.size();
+            float[] angle = new float[m];
+            for (int k = 0; k < m; k++) {
+                float[] d = sub(corners.get(k), n);
+                angle[k] = (float) Math.atan2(dot(d, t2), dot(d, t1));
+            }
+            Integer[] order = new Integer[m];
+            for (int k = 0; k < m; k++) order[k] = k;
+            java.util.Arrays.sort(order, (x, y) -> Float.compare(angle[x], angle[y]));
+
+            float[][] ring = new float[m][];
+            float[][] ringUv = new float[m][];
+            for (int k = 0; k < m; k++) {
+                float[] c = corners.get(order[k]);
+                ring[k] = normalize(new float[]{
+                        n[0] + (c[0] - n[0]) * PANEL_INSET,
+                        n[1] + (c[1] - n[1]) * PANEL_INSET,
+                        n[2] + (c[2] - n[2]) * PANEL_INSET});
+                ringUv[k] = new float[]{0.5f + 0.5f * (float) Math.cos(angle[order[k]]),
+                        0.5f + 0.5f * (float) Math.sin(angle[order[k]])};
+            }
+
+            // веер из квадов (центр, k, k+1, k+2); у пятиугольника последний — вырожденный
+            float threshold = hash01(i);
+            for (int k = 0; k < m; k += 2) {
+                int k1 = (k + 1) % m;
+                int k2 = k + 2 <= m ? (k + 2) % m : k1;
+                b.panelVertex(n, n, 0.5f, 0.5f, threshold);
+                b.panelVertex(ring[k], n, ringUv[k][0], ringUv[k][1], threshold);
+                b.panelVertex(ring[k1], n, ringUv[k1][0], ringUv[k1][1], threshold);
+                b.panelVertex(ring[k2], n, ringUv[k2][0], ringUv[k2][1], threshold);
+            }
+        }
+    }
+
+    /* ======= сборка ======= */
+
+    private static final class Builder {
+        final FloatList pos = new FloatList();
+        final FloatList nrm = new FloatList();
+        final FloatList uv = new FloatList();
+        final FloatList crack = new FloatList();
+        int count;
+
+        void vertex(float x, float y, float z, float nx, float ny, float nz, float u, float v, float threshold) {
+            pos.add(x, y, z);
+            nrm.add(nx, ny, nz);
+            uv.add(u, v);
+            crack.add(threshold);
+            count++;
+        }
+
+        /** Точка единичной сферы -> сфера радиуса 0.5 в центре unit-cube, гладкая нормаль. */
+        void sphereVertex(float[] p, float u, float v, float threshold) {
+            vertex(0.5f + p[0] * 0.5f, 0.5f + p[1] * 0.5f, 0.5f + p[2] * 0.5f, p[0], p[1], p[2], u, v, threshold);
+        }
+
+        /** Вершина плоской панели: нормаль — нормаль центра панели. */
+        void panelVertex(float[] p, float[] n, float u, float v, float threshold) {
+            vertex(0.5f + p[0] * 0.5f, 0.5f + p[1] * 0.5f, 0.5f + p[2] * 0.5f, n[0], n[1], n[2], u, v, threshold);
+        }
+
+        /** Внутренняя сторона: копия квадов, сжатая к центру на толщину, с обратным обходом и нормалью. */
+        void addInnerShell(float thickness) {
+            float scale = 1f - 2f * thickness;
+            int outer = count;
+            float[] p = pos.toArray(), n = nrm.toArray(), t = uv.toArray(), c = crack.toArray();
+            for (int q = 0; q < outer; q += 4) {
+                for (int i = 3; i >= 0; i--) {
+                    int s = q + i;
+                    vertex(0.5f + (p[s * 3] - 0.5f) * scale,
+                            0.5f + (p[s * 3 + 1] - 0.5f) * scale,
+                            0.5f + (p[s * 3 + 2] - 0.5f) * scale,
+                            -n[s * 3], -n[s * 3 + 1], -n[s * 3 + 2],
+                            t[s * 2], t[s * 2 + 1], c[s]);
+                }
+            }
+        }
+    }
+
+    private static final class FloatList {
+        float[] data = new float[256];
+        int size;
+
+        void add(float... values) {
+            if (size + values.length > data.length) {
+                data = java.util.Arrays.copyOf(data, Math.max(data.length * 2, size + values.length));
+            }
+            System.arraycopy(values, 0, data, size, values.length);
+            size += values.length;
+        }
+
+        float[] toArray() {
+            return java.util.Arrays.copyOf(data, size);
+        }
+    }
+
+    /* ======= математика ======= */
+
+    // детерминированный порог трещины по индексу панели (одинаков при каждой перегенерации)
+    static float hash01(int i) {
+        int h = i * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return (h >>> 8) / (float) (1 << 24);
+    }
+
+    private static float[] normalize(float[] p) {
+        float len = (float) Math.sqrt(p[0] * p[0] + p[1] * p[1] + p[2] * p[2]);
+        return new float[]{p[0] / len, p[1] / len, p[2] / len};
+    }
+
+    private static float[] sub(float[] a, float[] b) {
+        return new float[]{a[0] - b[0], a[1] - b[1], a[2] - b[2]};
+    }
+
+    private static float[] cross(float[] a, float[] b) {
+        return new float[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+    }
+
+    private static float dot(float[] a, float[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+}
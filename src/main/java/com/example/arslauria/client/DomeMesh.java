@@ -0,0 +1,98 @@
+package com.example.arslauria.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+
+/**
+ * Запечённая геометрия купола ({@link DomeGeometry}) в виде, готовом к записи в буфер.
+ *
+ * Геометрия строится один раз (см. {@link DomeMeshCache}); UV перепривязываются к спрайту атласа
+ * только при смене спрайта. На кадр остаётся перенос/масштаб вершин экземпляра и запись в общий
+ * буфер — все купола уходят одним батчем.
+ *
+ * Трещины: у вершины есть порог; при уровне трещин экземпляра выше порога вершина окрашивается
+ * в цвет трещины и выталкивается по нормали на величину пульсации. Уровень и пульсация —
+ * параметры экземпляра/кадра, а не пересчёт геометрии.
+ */
+final class DomeMesh {
+    // амплитуда выталкивания треснувших панелей (в долях размера купола)
+    private static final float CRACK_PUSH = 0.02f;
+
+    private final float[] pos;
+    private final float[] normal;
+    private final float[] unitUv;
+    private final float[] crack;
+    private final int vertexCount;
+
+    // UV в координатах атласа для последнего спрайта
+    private TextureAtlasSprite bakedSprite;
+    private float[] atlasUv;
+
+    DomeMesh(DomeGeometry geometry) {
+        this.pos = geometry.positions;
+        this.normal = geometry.normals;
+        this.unitUv = geometry.uvs;
+        this.crack = geometry.crack;
+        this.vertexCount = geometry.vertexCount;
+    }
+
+    /**
+     * Записать один экземпляр купола. Купол [0..1]^3 переносится в (x, y, z) относительно камеры
+     * и масштабируется в (sx, sy, sz).
+     *
+     * @param crackLevel уровень трещин экземпляра 0..1 (0 — целый)
+     * @param pulse      пульсация кадра 0..1
+     * @param crackRgb   цвет треснувших вершин
+     */
+    void emit(VertexConsumer vc, PoseStack.Pose pose, TextureAtlasSprite sprite,
+              float x, float y, float z, float sx, float sy, float sz,
+              float crackLevel, float pulse, int crackRgb, int light) {
+        float[] uv = uvFor(sprite);
+        Matrix4f mat = pose.pose();
+        Matrix3f nrm = pose.normal();
+        int cr = (crackRgb >> 16) & 0xFF, cg = (crackRgb >> 8) & 0xFF, cb = crackRgb & 0xFF;
+        float push = CRACK_PUSH * pulse;
+
+        for (int i = 0; i < vertexCount; i++) {
+            int p = i * 3;
+            float px = pos[p], py = pos[p + 1], pz = pos[p + 2];
+            int r = 255, g = 255, b = 255;
+            if (crack[i] < crackLevel) {
+                px += normal[p] * push;
+                py += normal[p + 1] * push;
+                pz += normal[p + 2] * push;
+                r = cr;
+                g = cg;
+                b = cb;
+            }
+            vc.vertex(mat, x + px * sx, y + py * sy, z + pz * sz)
+                    .color(r, g, b, 255)
+                    .uv(uv[i * 2], uv[i * 2 + 1])
+                    .overlayCoords(OverlayTexture.NO_OVERLAY)
+                    .uv2(light)
+                    .normal(nrm, normal[p], normal[p + 1], normal[p + 2])
+                    .endVertex();
+        }
+    }
+
+    int vertexCount() {
+        return vertexCount;
+    }
+
+    private float[] uvFor(TextureAtlasSprite sprite) {
+        if (sprite != bakedSprite) {
+            float[] uv = new float[vertexCount * 2];
+            for (int i = 0; i < vertexCount; i++) {
+                uv[i * 2] = sprite.getU(unitUv[i * 2] * 16.0);
+                uv[i * 2 + 1] = sprite.getV(unitUv[i * 2 + 1] * 16.0);
+            }
+            atlasUv = uv;
+            bakedSprite = sprite;
+        }
+        return atlasUv;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.Lauria;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientReloadListenersEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Кэш геометрии куполов: все формы на всех уровнях детализации, в полном (с внутренней стороной)
+ * и упрощённом варианте. Строится при перезагрузке ресурсов, а не на кадре.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.MOD
+)
+public final class DomeMeshCache {
+    public static final int MAX_DETAIL = 3;
+    // Толщина оболочки в unit-cube (0..1). 0.02 ≈ 1/50 блока — тонкая грань.
+    private static final float THICKNESS = 0.02f;
+
+    private static volatile Map<DomeGeometry.Shape, DomeMesh[][]> MESHES;
+
+    private DomeMeshCache() {}
+
+    @SubscribeEvent
+    public static void onRegisterReloadListeners(RegisterClientReloadListenersEvent event) {
+        event.registerReloadListener((ResourceManagerReloadListener) resourceManager -> rebuild());
+    }
+
+    /**
+     * @param detail уровень подразбиения 0..{@link #MAX_DETAIL} (для CUBE не важен)
+     * @param full   полная оболочка (внешняя + внутренняя сторона) или только внешняя
+     */
+    static DomeMesh get(DomeGeometry.Shape shape, int detail, boolean full) {
+        Map<DomeGeometry.Shape, DomeMesh[][]> meshes = MESHES;
+        if (meshes == null) meshes = rebuild();
+        int level = shape == DomeGeometry.Shape.CUBE ? 0 : Math.max(0, Math.min(MAX_DETAIL, detail));
+        return meshes.get(shape)[level][full ? 1 : 0];
+    }
+
+    private static synchronized Map<DomeGeometry.Shape, DomeMesh[][]> rebuild() {
+        Map<DomeGeometry.Shape, DomeMesh[][]> meshes = new EnumMap<>(DomeGeometry.Shape.class);
+        for (DomeGeometry.Shape shape : DomeGeometry.Shape.values()) {
+            int levels = shape == DomeGeometry.Shape.CUBE ? 1 : MAX_DETAIL + 1;
+            DomeMesh[][] byLevel = new DomeMesh[levels][2];
+            for (int level = 0; level < levels; level++) {
+                byLevel[level][0] = new DomeMesh(DomeGeometry.build(shape, level, THICKNESS, false));
+                byLevel[level][1] = new DomeMesh(DomeGeometry.build(shape, level, THICKNESS, true));
+            }
+            meshes.put(shape, byLevel);
+        }
+        MESHES = meshes;
+        return meshes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.Lauria;
+import com.mojang.blaze3d.platform.InputConstants;
+import net.minecraft.client.KeyMapping;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterClientCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Счётчики кадра для визуала ArsLauria (купола, частицы, индекс барьеров) и их скользящие средние.
+ *
+ * Включается клавишей {@link #TOGGLE_KEY} (по умолчанию не назначена) или клиентской командой
+ * {@code /lauria stats}. Выключено — источники проверяют только {@link #enabled} и ничего не считают
+ * (без System.nanoTime и записи полей). Накопленное за кадр сворачивается в средние в конце RenderTickEvent;
+ * показывает их {@link RenderStatsOverlay}. Все обращения — из клиентского потока.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.FORGE
+)
+public final class RenderStats {
+    public static final KeyMapping TOGGLE_KEY = new KeyMapping("key.arslauria.render_stats",
+            InputConstants.UNKNOWN.getValue(), "key.categories.arslauria");
+
+    // вес нового кадра в скользящем среднем (~ последние 30 кадров)
+    private static final double ALPHA = 1.0 / 30.0;
+
+    /** Проверяется источниками перед любым подсчётом. */
+    public static boolean enabled;
+
+    // накопители текущего кадра
+    private static int domesConsidered;
+    private static int domesCulled;
+    private static int domesDrawn;
+    private static int domeVertices;
+    private static long domeNanos;
+    private static int particlesSpawned;
+    private static int particlesDropped;
+
+    // скользящие средние (читает оверлей)
+    static double avgDomesConsidered;
+    static double avgDomesCulled;
+    static double avgDomesDrawn;
+    static double avgDomeVertices;
+    static double avgDomeMillis;
+    static double avgParticlesSpawned;
+    static double avgParticlesDropped;
+    static double avgFrameMillis;
+    static int peakDomeVertices;
+
+    private static long lastFrameNanos;
+
+    private RenderStats() {}
+
+    public static void toggle() {
+        enabled = !enabled;
+        reset();
+    }
+
+    /** Итог прохода рендера куполов за кадр. */
+    static void recordDomes(int considered, int culled, int drawn, int vertices, long nanos) {
+        domesConsidered += considered;
+        domesCulled += culled;
+        domesDrawn += drawn;
+        domeVertices += vertices;
+        domeNanos += nanos;
+    }
+
+    /** Итог сброса очереди {@link ClientParticleBudget} за кадр. */
+    static void recordParticles(int spawned, int dropped) {
+        particlesSpawned += spawned;
+        particlesDropped += dropped;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        while (TOGGLE_KEY.consumeClick()) {
+            toggle();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event) {
+        if (!enabled || event.phase != TickEvent.Phase.END) return;
+
+        long now = System.nanoTime();
+        if (lastFrameNanos != 0L) {
+            avgFrameMillis = ema(avgFrameMillis, (now - lastFrameNanos) / 1_000_000.0);
+        }
+        lastFrameNanos = now;
+
+        avgDomesConsidered = ema(avgDomesConsidered, domesConsidered);
+        avgDomesCulled = ema(avgDomesCulled, domesCulled);
+        avgDomesDrawn = ema(avgDomesDrawn, domesDrawn);
+        avgDomeVertices = ema(avgDomeVertices, domeVertices);
+        avgDomeMillis = ema(avgDomeMillis, domeNanos / 1_000_000.0);
+        avgParticlesSpawned = ema(avgParticlesSpawned, particlesSpawned);
+        avgParticlesDropped = ema(avgParticlesDropped, particlesDropped);
+        peakDomeVertices = Math.max(peakDomeVertices, domeVertices);
+
+        domesConsidered = domesCulled = domesDrawn = domeVertices = 0;
+        particlesSpawned = particlesDropped = 0;
+        domeNanos = 0L;
+    }
+
+    @SubscribeEvent
+    public static void onRegisterClientCommands(RegisterClientCommandsEvent event) {
+        event.getDispatcher().register(
+                Commands.literal("lauria")
+                        // /lauria stats — переключить оверлей производительности визуала
+                        .then(Commands.literal("stats")
+                                .executes(ctx -> {
+                                    toggle();
+                                    feedback(ctx.getSource());
+                                    return 1;
+                                })
+                        )
+        );
+    }
+
+    private static void feedback(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.translatable(enabled
+                ? "arslauria.render_stats.on" : "arslauria.render_stats.off"), false);
+    }
+
+    private static void reset() {
+        domesConsidered = domesCulled = domesDrawn = domeVertices = 0;
+        particlesSpawned = particlesDropped = 0;
+        domeNanos = 0L;
+        avgDomesConsidered = avgDomesCulled = avgDomesDrawn = avgDomeVertices = 0.0;
+        avgDomeMillis = avgParticlesSpawned = avgParticlesDropped = avgFrameMillis = 0.0;
+        peakDomeVertices = 0;
+        lastFrameNanos = 0L;
+    }
+
+    private static double ema(double avg, double sample) {
+        return avg + (sample - avg) * ALPHA;
+    }
+}
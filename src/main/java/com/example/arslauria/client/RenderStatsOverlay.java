@@ -0,0 +1,67 @@
+package com.example.arslauria.client;
+
+import com.example.arslauria.Lauria;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
+import net.minecraftforge.client.event.RegisterKeyMappingsEvent;
+import net.minecraftforge.client.gui.overlay.ForgeGui;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Отладочный оверлей {@link RenderStats}: средние за последние кадры в правом верхнем углу.
+ * Выключенный оверлей выходит на первой проверке; строки собираются только когда он включён.
+ */
+@Mod.EventBusSubscriber(
+        modid = Lauria.MOD_ID,
+        value = Dist.CLIENT,
+        bus   = Mod.EventBusSubscriber.Bus.MOD
+)
+public final class RenderStatsOverlay {
+    private static final int TEXT_COLOR = 0xFFE0E0E0;
+    private static final int BACK_COLOR = 0x90000000;
+    private static final int MARGIN = 2;
+
+    private RenderStatsOverlay() {}
+
+    @SubscribeEvent
+    public static void onRegisterKeyMappings(RegisterKeyMappingsEvent event) {
+        event.register(RenderStats.TOGGLE_KEY);
+    }
+
+    @SubscribeEvent
+    public static void onRegisterOverlays(RegisterGuiOverlaysEvent event) {
+        event.registerAboveAll("render_stats", RenderStatsOverlay::render);
+    }
+
+    private static void render(ForgeGui gui, GuiGraphics graphics, float partialTick, int width, int height) {
+        if (!RenderStats.enabled) return;
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.options.renderDebug) return;
+
+        String[] lines = {
+                "ArsLauria visuals",
+                String.format("frame %.2f ms", RenderStats.avgFrameMillis),
+                String.format("domes %.2f ms", RenderStats.avgDomeMillis),
+                String.format("domes: %.1f considered, %.1f culled, %.1f drawn",
+                        RenderStats.avgDomesConsidered, RenderStats.avgDomesCulled, RenderStats.avgDomesDrawn),
+                String.format("dome vertices %.0f (peak %d)", RenderStats.avgDomeVertices, RenderStats.peakDomeVertices),
+                String.format("particles: %.1f spawned, %.1f dropped",
+                        RenderStats.avgParticlesSpawned, RenderStats.avgParticlesDropped),
+                "barrier index " + ClientBarrierData.size()
+        };
+
+        Font font = mc.font;
+        int y = MARGIN;
+        for (String line : lines) {
+            int w = font.width(line);
+            int x = width - w - MARGIN;
+            graphics.fill(x - 1, y - 1, x + w + 1, y + font.lineHeight, BACK_COLOR);
+            graphics.drawString(font, line, x, y, TEXT_COLOR, false);
+            y += font.lineHeight + 1;
+        }
+    }
+}
@@ -1,26 +1,30 @@
 package com.example.arslauria.effects;
 
+import com.example.arslauria.client.ClientBarrierEvents;
 import com.example.arslauria.network.BarrierSyncPacket;
 import com.example.arslauria.network.NetworkHandler;
+import com.example.arslauria.network.OutboundBus;
+import com.example.arslauria.registry.ModRegistry;
 import com.example.arslauria.setup.ModEffects;
-import net.minecraft.core.particles.ParticleTypes;
-import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.effect.MobEffectCategory;
 import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.projectile.Projectile;
+import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingDeathEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.event.entity.living.MobEffectEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.DistExecutor;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,6 +50,10 @@ public class BarrierEffect extends MobEffect {
     // cooldown для предотвращения дублей звука при быстром последовательном удалении
     private static final java.util.concurrent.ConcurrentHashMap<Integer, Long> RECENT_REMOVALS = new java.util.concurrent.ConcurrentHashMap<>();
     private static final long REMOVAL_SOUND_COOLDOWN_MS = 1000L; // 1 секунда
+    // порядковый номер последнего отправленного обновления барьера по id сущности
+    private static final Map<Integer, Integer> SYNC_SEQ = new ConcurrentHashMap<>();
+    // серверный тик, в котором был выдан текущий seq
+    private static final Map<Integer, Integer> SYNC_SEQ_TICK = new ConcurrentHashMap<>();
 
 
     public BarrierEffect() {
@@ -55,18 +63,10 @@ public class BarrierEffect extends MobEffect {
 
     @Override
     public void applyEffectTick(LivingEntity entity, int amplifier) {
-        // Клиентские частицы (вызов происходит и на клиенте)
+        // Клиентские частицы (вызов происходит и на клиенте) — косметика, через общий бюджет частиц;
+        // класс общий, поэтому клиентский код — только через DistExecutor
         if (entity.level().isClientSide) {
-            double x = entity.getX();
-            double y = entity.getY() + entity.getBbHeight() * 0.5;
-            double z = entity.getZ();
-            entity.level().addParticle(
-                    ParticleTypes.ENCHANT,
-                    x + (Math.random() - 0.5),
-                    y + (Math.random() - 0.5),
-                    z + (Math.random() - 0.5),
-                    0, 0, 0
-            );
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientBarrierEvents.spawnEffectParticles(entity));
         }
     }
 
@@ -105,14 +105,7 @@ public class BarrierEffect extends MobEffect {
         // Если сломались какие-то стэки — воспроизводим звук для каждого сломанного стакa (на сервере один раз)
         if (result.stacksRemoved > 0 && !target.level().isClientSide) {
             for (int i = 0; i < result.stacksRemoved; i++) {
-                target.level().playSound(
-                        null,
-                        target.getX(), target.getY(), target.getZ(),
-                        SoundEvents.GLASS_BREAK,
-                        SoundSource.BLOCKS,
-                        1.0F,
-                        1.0F
-                );
+                playBreakSound(target, i > 0);
             }
         }
 
@@ -130,14 +123,7 @@ public class BarrierEffect extends MobEffect {
         if (shouldRemove) {
             // финальный звук (сервер)
             if (!target.level().isClientSide) {
-                target.level().playSound(
-                        null,
-                        target.getX(), target.getY(), target.getZ(),
-                        SoundEvents.GLASS_BREAK,
-                        SoundSource.BLOCKS,
-                        1.0F,
-                        1.0F
-                );
+                playBreakSound(target, false);
             }
 
             // удаляем эффект и данные (серверная сторона)
@@ -148,25 +134,12 @@ public class BarrierEffect extends MobEffect {
             if (!target.level().isClientSide) {
                 sendSyncRemoval(target);
             }
-
-            if (target instanceof ServerPlayer sp) {
-                sp.sendSystemMessage(Component.literal("Barrier broken."));
-            }
             return;
         } else {
             // Если просто изменились пуулы/стэки — отправляем обновление на клиентов (сервер)
             if (!target.level().isClientSide) {
+                // игрок видит состояние в HUD (BarrierHudOverlay) — чат-сообщения не нужны
                 sendSyncAdd(target);
-
-                if (target instanceof ServerPlayer sp) {
-                    BarrierData d = data;
-                    sp.sendSystemMessage(Component.literal(String.format(
-                            "Barrier changed — magic: %d/%d, phys: %d/%d (stacks: %d)",
-                            d.getTotalMagic(), d.getTotalMagicMax(),
-                            d.getTotalPhys(), d.getTotalPhysMax(),
-                            d.getStacksCount()
-                    )));
-                }
             }
         }
 
@@ -210,6 +183,15 @@ public class BarrierEffect extends MobEffect {
         }
     }
 
+    // клиент забывает барьер при выгрузке сущности — при повторном отслеживании шлём снимок
+    @SubscribeEvent
+    public void onStartTracking(PlayerEvent.StartTracking event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        if (event.getTarget() instanceof LivingEntity living && DATA.containsKey(living)) {
+            sendSnapshot(player, living.getId(), living);
+        }
+    }
+
     @SubscribeEvent
     public void onEffectRemoved(MobEffectEvent.Remove event) {
         // иногда getEffectInstance() может быть null — потому проверяем и напрямую effect
@@ -235,14 +217,7 @@ public class BarrierEffect extends MobEffect {
             Long last = RECENT_REMOVALS.get(id);
             if (last == null || now - last >= REMOVAL_SOUND_COOLDOWN_MS) {
                 try {
-                    entity.level().playSound(
-                            null,
-                            entity.getX(), entity.getY(), entity.getZ(),
-                            SoundEvents.GLASS_BREAK,
-                            SoundSource.BLOCKS,
-                            1.0F,
-                            1.0F
-                    );
+                    playBreakSound(entity, false);
                 } catch (Throwable t) {
                     t.printStackTrace();
                 }
@@ -275,22 +250,17 @@ public class BarrierEffect extends MobEffect {
             Long last = RECENT_REMOVALS.get(id);
             if (last == null || now - last >= REMOVAL_SOUND_COOLDOWN_MS) {
                 try {
-                    entity.level().playSound(
-                            null,
-                            entity.getX(), entity.getY(), entity.getZ(),
-                            SoundEvents.GLASS_BREAK,
-                            SoundSource.BLOCKS,
-                            1.0F,
-                            1.0F
-                    );
+                    playBreakSound(entity, false);
                 } catch (Throwable t) {
                     t.printStackTrace();
                 }
                 RECENT_REMOVALS.put(id, now);
             }
 
-            // синхронизируем удаление
-            sendSyncRemoval(entity);
+            // синхронизируем удаление — только если барьер был (иначе seq заводился бы на каждую смерть моба)
+            if (hadData) {
+                sendSyncRemoval(entity);
+            }
         }
 
         // опционально: лог
@@ -307,6 +277,9 @@ public class BarrierEffect extends MobEffect {
             LivingEntity entity = entry.getKey();
 
             if (entity == null || entity.isRemoved() || entity.isDeadOrDying()) {
+                if (entity != null) {
+                    forgetSyncSeq(entity.getId());
+                }
                 it.remove();
                 continue;
             }
@@ -315,14 +288,7 @@ public class BarrierEffect extends MobEffect {
             if (!entity.hasEffect(ModEffects.BARRIER.get())) {
                 // звук на сервере
                 if (!entity.level().isClientSide) {
-                    entity.level().playSound(
-                            null,
-                            entity.getX(), entity.getY(), entity.getZ(),
-                            SoundEvents.GLASS_BREAK,
-                            SoundSource.BLOCKS,
-                            1.0F,
-                            1.0F
-                    );
+                    playBreakSound(entity, false);
                 }
 
                 // синхронизируем удаление
@@ -355,15 +321,6 @@ public class BarrierEffect extends MobEffect {
         if (!entity.level().isClientSide) {
             sendSyncAdd(entity);
         }
-
-        BarrierData current = DATA.get(entity);
-        if (entity instanceof ServerPlayer sp && current != null) {
-            String msg = String.format("Barrier applied — magic: %d/%d, phys: %d/%d (stacks: %d)",
-                    current.getTotalMagic(), current.getTotalMagicMax(),
-                    current.getTotalPhys(), current.getTotalPhysMax(),
-                    current.getStacksCount());
-            sp.sendSystemMessage(Component.literal(msg));
-        }
     }
 
     // backward-compatible overload
@@ -497,24 +454,104 @@ public class BarrierEffect extends MobEffect {
 
     /* ======= сетевые хелперы для синхронизации с клиентом ======= */
 
+    // звук ломания барьера — через OutboundBus, вместе с остальными пакетами тика;
+    // cosmetic — повторный звук (второй и далее сломанный стэк), его не получают игроки с reducedSounds
+    private static void playBreakSound(LivingEntity entity, boolean cosmetic) {
+        if (entity.level() instanceof ServerLevel serverLevel) {
+            OutboundBus.broadcastSound(serverLevel, null,
+                    entity.getX(), entity.getY(), entity.getZ(),
+                    ModRegistry.BARRIER_BREAK.get(), SoundSource.BLOCKS, 1.0F, 1.0F, cosmetic);
+        }
+    }
+
+    /**
+     * Следующий порядковый номер обновления барьера для сущности.
+     * Клиент по нему обнаруживает пропущенные/переставленные обновления и запрашивает снимок.
+     */
+    private static int nextSyncSeq(LivingEntity entity) {
+        int id = entity.getId();
+        int tick = entity.getServer() != null ? entity.getServer().getTickCount() : -1;
+        // несколько изменений за один тик схлопываются OutboundBus в одно сообщение,
+        // поэтому внутри тика seq не растёт — иначе клиент увидел бы ложный пропуск
+        Integer lastTick = SYNC_SEQ_TICK.put(id, tick);
+        Integer seq = SYNC_SEQ.get(id);
+        if (seq == null) {
+            // новый барьер: seq растёт не чаще раза за тик, поэтому старт с tick + 1 выше любого seq
+            // прошлых барьеров этой сущности (их записи удаляются вместе с барьером)
+            seq = tick + 1;
+        } else if (lastTick == null || lastTick != tick) {
+            seq = seq + 1;
+        }
+        SYNC_SEQ.put(id, seq);
+        return seq;
+    }
+
+    private static int currentSyncSeq(ServerPlayer player, int entityId) {
+        Integer seq = SYNC_SEQ.get(entityId);
+        if (seq != null) return seq;
+        // барьера нет — seq снимка удаления не ниже seq прошлых барьеров этой сущности
+        return player.getServer() != null ? player.getServer().getTickCount() : 0;
+    }
+
+    private static void forgetSyncSeq(int entityId) {
+        SYNC_SEQ.remove(entityId);
+        SYNC_SEQ_TICK.remove(entityId);
+    }
+
+    private static BarrierSyncPacket buildAddPacket(LivingEntity entity, int seq, boolean snapshot) {
+        int duration = 0;
+        var inst = entity.getEffect(ModEffects.BARRIER.get());
+        if (inst != null) duration = inst.getDuration(); // тики
+
+        BarrierData d = DATA.get(entity);
+        int totMagic = d == null ? 0 : d.getTotalMagic();
+        int totMagicMax = d == null ? 0 : d.getTotalMagicMax();
+        int totPhys = d == null ? 0 : d.getTotalPhys();
+        int totPhysMax = d == null ? 0 : d.getTotalPhysMax();
+        int stacks = d == null ? 0 : d.getStacksCount();
+
+        return new BarrierSyncPacket(entity.getId(), seq, snapshot, true, duration,
+                totMagic, totMagicMax, totPhys, totPhysMax, stacks);
+    }
+
+    private static BarrierSyncPacket buildRemovalPacket(int entityId, int seq, boolean snapshot) {
+        // при удалении нет смысла передавать какие-то пулы — используем 0
+        return new BarrierSyncPacket(entityId, seq, snapshot, false, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Ответ на {@link com.example.arslauria.network.BarrierResyncRequestPacket}: отправляет одному игроку
+     * текущее состояние барьера сущности с текущим seq (без инкремента).
+     * Если сущности нет или барьера на ней нет — отправляется снимок удаления.
+     */
+    public static void sendSnapshot(ServerPlayer player, int entityId, Entity entity) {
+        int seq = currentSyncSeq(player, entityId);
+        BarrierSyncPacket pkt;
+        if (entity instanceof LivingEntity living && DATA.containsKey(living)
+                && living.hasEffect(ModEffects.BARRIER.get())) {
+            pkt = buildAddPacket(living, seq, true);
+        } else {
+            pkt = buildRemovalPacket(entityId, seq, true);
+        }
+        NetworkHandler.sendToPlayer(player, pkt);
+    }
+
+    /** Снимки всех барьеров, которые отслеживает игрок (например, после повторного включения куполов). */
+    public static void sendSnapshotsTrackedBy(ServerPlayer player) {
+        for (LivingEntity entity : DATA.keySet()) {
+            if (entity == player || entity.isRemoved() || entity.level() != player.level()) continue;
+            if (!OutboundBus.isTracking(player, entity)) continue;
+            sendSnapshot(player, entity.getId(), entity);
+        }
+    }
+
     private static void sendSyncAdd(LivingEntity entity) {
         if (entity.level().isClientSide) return;
         try {
-            int duration = 0;
-            var inst = entity.getEffect(ModEffects.BARRIER.get());
-            if (inst != null) duration = inst.getDuration(); // тики
-
-            BarrierData d = DATA.get(entity);
-            int totMagic = d == null ? 0 : d.getTotalMagic();
-            int totMagicMax = d == null ? 0 : d.getTotalMagicMax();
-            int totPhys = d == null ? 0 : d.getTotalPhys();
-            int totPhysMax = d == null ? 0 : d.getTotalPhysMax();
+            BarrierSyncPacket pkt = buildAddPacket(entity, nextSyncSeq(entity), false);
 
             if (NetworkHandler.isInitialized()) {
-                NetworkHandler.sendToTracking(entity, new com.example.arslauria.network.BarrierSyncPacket(
-                        entity.getId(), true, duration,
-                        totMagic, totMagicMax, totPhys, totPhysMax
-                ));
+                NetworkHandler.sendToTracking(entity, pkt);
                 return;
             }
 
@@ -522,10 +559,7 @@ public class BarrierEffect extends MobEffect {
             if (entity.level() instanceof ServerLevel serverLevel) {
                 for (ServerPlayer p : serverLevel.players()) {
                     if (p.distanceToSqr(entity) <= SYNC_RANGE_SQ) {
-                        NetworkHandler.sendToPlayer(p, new com.example.arslauria.network.BarrierSyncPacket(
-                                entity.getId(), true, duration,
-                                totMagic, totMagicMax, totPhys, totPhysMax
-                        ));
+                        NetworkHandler.sendToPlayer(p, pkt);
                     }
                 }
             }
@@ -537,41 +571,17 @@ public class BarrierEffect extends MobEffect {
     private static void sendSyncRemoval(LivingEntity entity) {
         if (entity.level().isClientSide) return;
         try {
-            // при удалении нет смысла передавать какие-то пулы — используем 0
-            int duration = 0;
-            int totMagic = 0;
-            int totMagicMax = 0;
-            int totPhys = 0;
-            int totPhysMax = 0;
+            BarrierSyncPacket pkt = buildRemovalPacket(entity.getId(), nextSyncSeq(entity), false);
+            forgetSyncSeq(entity.getId());
 
             if (NetworkHandler.isInitialized()) {
-                NetworkHandler.sendToTracking(entity,
-                        new com.example.arslauria.network.BarrierSyncPacket(
-                                entity.getId(),
-                                false,
-                                duration,
-                                totMagic,
-                                totMagicMax,
-                                totPhys,
-                                totPhysMax
-                        )
-                );
+                NetworkHandler.sendToTracking(entity, pkt);
                 return;
             }
             if (entity.level() instanceof ServerLevel serverLevel) {
                 for (ServerPlayer p : serverLevel.players()) {
                     if (p.distanceToSqr(entity) <= SYNC_RANGE_SQ) {
-                        NetworkHandler.sendToPlayer(p,
-                                new com.example.arslauria.network.BarrierSyncPacket(
-                                        entity.getId(),
-                                        false,
-                                        duration,
-                                        totMagic,
-                                        totMagicMax,
-                                        totPhys,
-                                        totPhysMax
-                                )
-                        );
+                        NetworkHandler.sendToPlayer(p, pkt);
                     }
                 }
             }
@@ -0,0 +1,68 @@
+package com.example.arslauria.events;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.BitSet;
+
+/**
+ * Снимок состояний блоков в прямоугольной зоне для наблюдателей Impact.
+ *
+ * Хранение — упакованные id состояний ({@link Block#getId}) в {@link SimpleBitStorage} по локальному
+ * смещению от угла зоны и битсет «изменилось со снимка». Без BlockPos и узлов карты: 7x7x7 при ~16 битах
+ * на состояние — меньше 1 КБ. Непомеченные клетки читаются из массива; помеченные — из мира
+ * (их обычно единицы). Пометки ставит подписка {@link BlockChangeNotifier} владельца снимка, поэтому
+ * видны только изменения через LevelChunk#setBlockState — запись в секцию в обход него (например,
+ * моды, пишущие в LevelChunkSection напрямую) снимок не заметит.
+ */
+public final class BlockBaseline {
+    private final BoundingBox box;
+    private final int sizeX, sizeY, sizeZ;
+    private final SimpleBitStorage ids;
+    private final BitSet changed;
+
+    private BlockBaseline(BoundingBox box) {
+        this.box = box;
+        this.sizeX = box.getXSpan();
+        this.sizeY = box.getYSpan();
+        this.sizeZ = box.getZSpan();
+        int volume = sizeX * sizeY * sizeZ;
+        int bits = Math.max(1, Mth.ceillog2(Block.BLOCK_STATE_REGISTRY.size()));
+        this.ids = new SimpleBitStorage(bits, volume);
+        this.changed = new BitSet(volume);
+    }
+
+    /** Снять состояния блоков зоны (включительно). */
+    public static BlockBaseline capture(Level level, BoundingBox box) {
+        BlockBaseline baseline = new BlockBaseline(box);
+        // id воздуха — 0, пустые секции можно не записывать
+        BlockScanKernel.forEach(level, box, true, (x, y, z, state) -> {
+            baseline.ids.set(baseline.index(x, y, z), Block.getId(state));
+            return false;
+        });
+        return baseline;
+    }
+
+    /** Текущее состояние клетки: из снимка, если она не менялась, иначе из мира. */
+    public BlockState stateAt(Level level, BlockPos.MutableBlockPos cursor, int x, int y, int z) {
+        int i = index(x, y, z);
+        if (!changed.get(i)) return Block.stateById(ids.get(i));
+        return level.getBlockState(cursor.set(x, y, z));
+    }
+
+    /** Учесть изменение блока: пометка ставится, если состояние отличается от снимка, иначе снимается. */
+    public void onBlockChanged(BlockPos pos, BlockState newState) {
+        if (!box.isInside(pos)) return;
+        int i = index(pos.getX(), pos.getY(), pos.getZ());
+        changed.set(i, ids.get(i) != Block.getId(newState));
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - box.minY()) * sizeZ + (z - box.minZ())) * sizeX + (x - box.minX());
+    }
+}
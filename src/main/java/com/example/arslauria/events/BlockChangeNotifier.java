@@ -0,0 +1,147 @@
+package com.example.arslauria.events;
+
+import com.example.arslauria.Lauria;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Серверные уведомления об изменении блоков в заданных зонах.
+ *
+ * Источник — {@code LevelChunkMixin} (LevelChunk#setBlockState, только реальные изменения состояния).
+ * Подписки хранятся по секциям чанков: изменение блока — один поиск в хэш-таблице уровня, и только
+ * подписчики из этой секции проверяют свою зону. Ждущий наблюдатель ничего не делает на тике — его
+ * будит изменение блока в его зоне.
+ *
+ * Только серверный поток; изменения с других потоков (генерация мира) не рассылаются.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class BlockChangeNotifier {
+    private static final Map<Level, Long2ObjectOpenHashMap<List<Subscription>>> LEVELS = new IdentityHashMap<>();
+    private static final Subscription[] NONE = new Subscription[0];
+
+    /** Получатель изменений блоков; pos может быть изменяемым — сохранять через immutable(). */
+    @FunctionalInterface
+    public interface Listener {
+        void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+    /** Подписка на зону; зону можно сдвигать ({@link #moveTo}), по окончании — {@link #cancel}. */
+    public static final class Subscription {
+        private final Level level;
+        private final Listener listener;
+        private BoundingBox zone;
+        private final LongArrayList sections = new LongArrayList();
+        private boolean cancelled;
+
+        private Subscription(Level level, BoundingBox zone, Listener listener) {
+            this.level = level;
+            this.zone = zone;
+            this.listener = listener;
+        }
+
+        /** Сменить зону; секции перепривязываются, только если набор секций изменился. */
+        public void moveTo(BoundingBox newZone) {
+            if (cancelled || newZone.equals(zone)) return;
+            boolean sameSections = sectionOf(newZone.minX()) == sectionOf(zone.minX())
+                    && sectionOf(newZone.maxX()) == sectionOf(zone.maxX())
+                    && sectionOf(newZone.minY()) == sectionOf(zone.minY())
+                    && sectionOf(newZone.maxY()) == sectionOf(zone.maxY())
+                    && sectionOf(newZone.minZ()) == sectionOf(zone.minZ())
+                    && sectionOf(newZone.maxZ()) == sectionOf(zone.maxZ());
+            if (sameSections) {
+                zone = newZone;
+                return;
+            }
+            unlink(this);
+            zone = newZone;
+            link(this);
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            unlink(this);
+        }
+    }
+
+    private BlockChangeNotifier() {}
+
+    /** Подписаться на изменения блоков в zone (включительно). Только серверные уровни. */
+    public static Subscription subscribe(Level level, BoundingBox zone, Listener listener) {
+        Subscription sub = new Subscription(level, zone, listener);
+        link(sub);
+        return sub;
+    }
+
+    /** Вызывается из LevelChunkMixin после реального изменения состояния блока. */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (LEVELS.isEmpty() || level.isClientSide()) return;
+        MinecraftServer server = level.getServer();
+        if (server == null || !server.isSameThread()) return;
+
+        Long2ObjectOpenHashMap<List<Subscription>> bySection = LEVELS.get(level);
+        if (bySection == null) return;
+        List<Subscription> bucket = bySection.get(SectionPos.asLong(pos));
+        if (bucket == null) return;
+
+        // подписчик может отписаться или сдвинуть зону прямо из обработчика
+        Subscription[] snapshot = bucket.toArray(NONE);
+        for (Subscription sub : snapshot) {
+            if (!sub.cancelled && sub.zone.isInside(pos)) {
+                sub.listener.onBlockChanged(pos, oldState, newState);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level) LEVELS.remove(level);
+    }
+
+    private static void link(Subscription sub) {
+        BoundingBox z = sub.zone;
+        Long2ObjectOpenHashMap<List<Subscription>> bySection = LEVELS.computeIfAbsent(sub.level, l -> new Long2ObjectOpenHashMap<>());
+        for (int sx = sectionOf(z.minX()); sx <= sectionOf(z.maxX()); sx++) {
+            for (int sy = sectionOf(z.minY()); sy <= sectionOf(z.maxY()); sy++) {
+                for (int sz = sectionOf(z.minZ()); sz <= sectionOf(z.maxZ()); sz++) {
+                    long key = SectionPos.asLong(sx, sy, sz);
+                    bySection.computeIfAbsent(key, k -> new ArrayList<>(2)).add(sub);
+                    sub.sections.add(key);
+                }
+            }
+        }
+    }
+
+    private static void unlink(Subscription sub) {
+        Long2ObjectOpenHashMap<List<Subscription>> bySection = LEVELS.get(sub.level);
+        if (bySection != null) {
+            for (int i = 0; i < sub.sections.size(); i++) {
+                long key = sub.sections.getLong(i);
+                List<Subscription> bucket = bySection.get(key);
+                if (bucket == null) continue;
+                bucket.remove(sub);
+                if (bucket.isEmpty()) bySection.remove(key);
+            }
+            if (bySection.isEmpty()) LEVELS.remove(sub.level);
+        }
+        sub.sections.clear();
+    }
+
+    private static int sectionOf(int blockCoord) {
+        return SectionPos.blockToSectionCoord(blockCoord);
+    }
+}
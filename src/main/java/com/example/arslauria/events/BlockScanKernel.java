@@ -0,0 +1,148 @@
+package com.example.arslauria.events;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
+
+/**
+ * Общий обход блоков для наблюдателей Impact.
+ *
+ * Вместо {@code world.getBlockState(center.offset(dx, dy, dz))} на каждую клетку: чанк и секция
+ * берутся один раз на свой диапазон, секции {@code hasOnlyAir()} пропускаются целиком, координаты
+ * идут без аллокаций BlockPos. Чанки, которые не загружены, считаются воздухом — скан не грузит и
+ * не генерирует чанки (в отличие от Level#getBlockState на сервере).
+ *
+ * Порядок обхода — по чанкам и секциям, а не по смещениям от центра; если важна «первая» клетка,
+ * вызывающий выбирает её сам по своему ключу.
+ */
+public final class BlockScanKernel {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    // тест клетки хайтмапа MOTION_BLOCKING — поверхность приземления
+    private static final Predicate<BlockState> LANDING_SURFACE = Heightmap.Types.MOTION_BLOCKING.isOpaque();
+
+    /** Посетитель клетки; true — остановить обход. */
+    @FunctionalInterface
+    public interface CellVisitor {
+        boolean visit(int x, int y, int z, BlockState state);
+    }
+
+    private BlockScanKernel() {}
+
+    /**
+     * Обойти клетки box (включительно).
+     *
+     * @param skipAir не посещать воздух (и пропускать пустые секции и незагруженные чанки целиком)
+     * @return true, если обход остановлен посетителем
+     */
+    public static boolean forEach(Level level, BoundingBox box, boolean skipAir, CellVisitor visitor) {
+        int minSectionY = level.getMinSection();
+        int maxSectionY = level.getMaxSection() - 1;
+
+        for (int cx = SectionPos.blockToSectionCoord(box.minX()); cx <= SectionPos.blockToSectionCoord(box.maxX()); cx++) {
+            for (int cz = SectionPos.blockToSectionCoord(box.minZ()); cz <= SectionPos.blockToSectionCoord(box.maxZ()); cz++) {
+                int x0 = Math.max(box.minX(), SectionPos.sectionToBlockCoord(cx)), x1 = Math.min(box.maxX(), SectionPos.sectionToBlockCoord(cx, 15));
+                int z0 = Math.max(box.minZ(), SectionPos.sectionToBlockCoord(cz)), z1 = Math.min(box.maxZ(), SectionPos.sectionToBlockCoord(cz, 15));
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+
+                for (int sy = SectionPos.blockToSectionCoord(box.minY()); sy <= SectionPos.blockToSectionCoord(box.maxY()); sy++) {
+                    int y0 = Math.max(box.minY(), SectionPos.sectionToBlockCoord(sy)), y1 = Math.min(box.maxY(), SectionPos.sectionToBlockCoord(sy, 15));
+                    LevelChunkSection section = chunk != null && sy >= minSectionY && sy <= maxSectionY
+                            ? chunk.getSection(chunk.getSectionIndexFromSectionY(sy)) : null;
+
+                    if (section == null || section.hasOnlyAir()) {
+                        if (skipAir) continue;
+                        if (visitAll(x0, x1, y0, y1, z0, z1, visitor)) return true;
+                        continue;
+                    }
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            for (int x = x0; x <= x1; x++) {
+                                BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+                                if (skipAir && state.isAir()) continue;
+                                if (visitor.visit(x, y, z, state)) return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Первая клетка поверхности (тест хайтмапа MOTION_BLOCKING) в колонне (x, z), начиная с y и вниз
+     * на maxDepth блоков (включая y); пустые секции проходятся одним шагом. Результат пишется в out;
+     * null — не найдена.
+     */
+    @Nullable
+    private static BlockPos.MutableBlockPos firstBelow(Level level, int x, int y, int z, int maxDepth,
+                                                       BlockPos.MutableBlockPos out) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+        if (chunk == null) return null;
+
+        int bottom = Math.max(y - Math.max(0, maxDepth), level.getMinBuildHeight());
+        int cy = Math.min(y, level.getMaxBuildHeight() - 1);
+        while (cy >= bottom) {
+            int sy = SectionPos.blockToSectionCoord(cy);
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+            int sectionBottom = Math.max(bottom, SectionPos.sectionToBlockCoord(sy));
+            if (!section.hasOnlyAir()) {
+                for (int yy = cy; yy >= sectionBottom; yy--) {
+                    BlockState state = section.getBlockState(x & 15, yy & 15, z & 15);
+                    if (!state.isAir() && LANDING_SURFACE.test(state)) {
+                        return out.set(x, yy, z);
+                    }
+                }
+            }
+            cy = sectionBottom - 1;
+        }
+        return null;
+    }
+
+    /**
+     * Поверхность приземления в колонне (x, z) в пределах y..y-maxDepth по хайтмапу MOTION_BLOCKING чанка:
+     * одно чтение на колонну. Если верх хайтмапа выше y (старт под поверхностью — пещера, навес),
+     * колонна проходится вниз с тем же тестом, что у хайтмапа (блокирует движение или содержит жидкость).
+     * Блоки, не мешающие движению (трава, цветы, факелы), поверхностью не считаются ни в одном из случаев.
+     * Результат пишется в out; null — не найдена или чанк не загружен.
+     */
+    @Nullable
+    public static BlockPos.MutableBlockPos surfaceBelow(Level level, int x, int y, int z, int maxDepth,
+                                                        BlockPos.MutableBlockPos out) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+        if (chunk == null) return null;
+
+        int top = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, x & 15, z & 15);
+        if (top > y) return firstBelow(level, x, y, z, maxDepth, out);
+        if (top < y - Math.max(0, maxDepth) || top < level.getMinBuildHeight()) return null;
+        return out.set(x, top, z);
+    }
+
+    /** То же, с новой позицией в результате. */
+    @Nullable
+    public static BlockPos surfaceBelow(Level level, BlockPos start, int maxDepth) {
+        BlockPos.MutableBlockPos found = surfaceBelow(level, start.getX(), start.getY(), start.getZ(), maxDepth,
+                new BlockPos.MutableBlockPos());
+        return found != null ? found.immutable() : null;
+    }
+
+    private static boolean visitAll(int x0, int x1, int y0, int y1, int z0, int z1, CellVisitor visitor) {
+        for (int y = y0; y <= y1; y++) {
+            for (int z = z0; z <= z1; z++) {
+                for (int x = x0; x <= x1; x++) {
+                    if (visitor.visit(x, y, z, AIR)) return true;
+                }
+            }
+        }
+        return false;
+    }
+}
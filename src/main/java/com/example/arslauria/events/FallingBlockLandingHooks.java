@@ -0,0 +1,73 @@
+package com.example.arslauria.events;
+
+import com.example.arslauria.Lauria;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.FallingBlockEntity;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Приземление FallingBlockEntity: {@code FallingBlockEntityMixin} сообщает точную позицию, куда блок
+ * поставил себя в мир, в конце тика этой сущности. Наблюдатели подписываются на конкретную сущность
+ * и резолвят спелл в тот же тик — без опроса блоков и угадывания позиции.
+ *
+ * Подписки снимаются после приземления, при удалении сущности без приземления (выпала предметом,
+ * истекло время — из тика сущности; выгрузка, kill — по выходу из уровня) или явно ({@link #unlisten}).
+ * Только серверный поток.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class FallingBlockLandingHooks {
+    private static final Map<Entity, List<Listener>> LISTENERS = new IdentityHashMap<>();
+
+    /** Получатель приземления; pos — позиция установленного блока. */
+    @FunctionalInterface
+    public interface Listener {
+        void onLanded(FallingBlockEntity entity, BlockPos pos);
+    }
+
+    private FallingBlockLandingHooks() {}
+
+    public static void listen(FallingBlockEntity entity, Listener listener) {
+        LISTENERS.computeIfAbsent(entity, e -> new ArrayList<>(1)).add(listener);
+    }
+
+    public static void unlisten(FallingBlockEntity entity, Listener listener) {
+        List<Listener> list = LISTENERS.get(entity);
+        if (list == null) return;
+        list.remove(listener);
+        if (list.isEmpty()) LISTENERS.remove(entity);
+    }
+
+    /** Вызывается из FallingBlockEntityMixin в конце тика, в котором блок был установлен. */
+    public static void onLanded(FallingBlockEntity entity, BlockPos pos) {
+        if (LISTENERS.isEmpty()) return;
+        List<Listener> list = LISTENERS.remove(entity);
+        if (list == null) return;
+        for (Listener listener : list) {
+            listener.onLanded(entity, pos);
+        }
+    }
+
+    /** Вызывается из FallingBlockEntityMixin в конце тика, в котором сущность удалена без установки блока. */
+    public static void onRemovedWithoutLanding(FallingBlockEntity entity) {
+        if (!LISTENERS.isEmpty()) LISTENERS.remove(entity);
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        // из тика сущность удаляется с DISCARDED — и при установке блока (onLanded диспатчится позже,
+        // в конце тика), и без неё (см. onRemovedWithoutLanding); здесь — остальные причины: выгрузка, kill
+        if (event.getLevel().isClientSide() || LISTENERS.isEmpty()) return;
+        Entity entity = event.getEntity();
+        if (entity instanceof FallingBlockEntity fbe && fbe.getRemovalReason() != Entity.RemovalReason.DISCARDED) {
+            LISTENERS.remove(entity);
+        }
+    }
+}
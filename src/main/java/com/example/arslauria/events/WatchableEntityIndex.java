@@ -0,0 +1,132 @@
+package com.example.arslauria.events;
+
+import com.example.arslauria.Lauria;
+import com.example.arslauria.registry.ModEntityTags;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Серверный пространственный индекс сущностей, за которыми может следить Impact
+ * (тег {@code arslauria:impact_watchable} и FallingBlockEntity, см. {@link ModEntityTags}).
+ *
+ * На каждый уровень — корзины по секциям чанков (16³). Обновляется событиями входа/выхода сущности
+ * из уровня и смены секции, так что поиск рядом с точкой обходит только секции в радиусе и только
+ * отслеживаемые сущности в них, сколько бы прочих сущностей ни было загружено.
+ *
+ * Классификация фиксируется при входе в уровень: после /reload с изменёнными тегами уже загруженные
+ * сущности переклассифицируются при следующей загрузке. Только серверный поток; на клиенте
+ * {@link #isIndexed} ложно и вызывающий код пользуется обычным запросом сущностей.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class WatchableEntityIndex {
+    private static final Map<Level, LevelIndex> LEVELS = new IdentityHashMap<>();
+
+    private static final class LevelIndex {
+        final Long2ObjectOpenHashMap<List<Entity>> bySection = new Long2ObjectOpenHashMap<>();
+        final Reference2LongOpenHashMap<Entity> sectionOf = new Reference2LongOpenHashMap<>();
+
+        void add(Entity entity, long section) {
+            if (sectionOf.containsKey(entity)) return;
+            sectionOf.put(entity, section);
+            bySection.computeIfAbsent(section, k -> new ArrayList<>(4)).add(entity);
+        }
+
+        void remove(Entity entity) {
+            if (!sectionOf.containsKey(entity)) return;
+            unlink(entity, sectionOf.removeLong(entity));
+        }
+
+        void move(Entity entity, long section) {
+            if (!sectionOf.containsKey(entity)) return;
+            long old = sectionOf.put(entity, section);
+            if (old == section) return;
+            unlink(entity, old);
+            bySection.computeIfAbsent(section, k -> new ArrayList<>(4)).add(entity);
+        }
+
+        private void unlink(Entity entity, long section) {
+            List<Entity> bucket = bySection.get(section);
+            if (bucket == null) return;
+            bucket.remove(entity);
+            if (bucket.isEmpty()) bySection.remove(section);
+        }
+    }
+
+    private WatchableEntityIndex() {}
+
+    /** Ведётся ли индекс для этого уровня (только серверные уровни). */
+    public static boolean isIndexed(Level level) {
+        return level != null && !level.isClientSide();
+    }
+
+    /**
+     * Живые отслеживаемые сущности, хитбокс которых пересекает box, — в out (out не очищается).
+     */
+    public static void collect(Level level, AABB box, List<Entity> out) {
+        LevelIndex index = LEVELS.get(level);
+        if (index == null || index.bySection.isEmpty()) return;
+
+        // секции хитбоксов, задевающих box: позиция сущности может отставать от края box на её размер
+        int minX = SectionPos.blockToSectionCoord(box.minX - 2), maxX = SectionPos.blockToSectionCoord(box.maxX + 2);
+        int minY = SectionPos.blockToSectionCoord(box.minY - 2), maxY = SectionPos.blockToSectionCoord(box.maxY + 2);
+        int minZ = SectionPos.blockToSectionCoord(box.minZ - 2), maxZ = SectionPos.blockToSectionCoord(box.maxZ + 2);
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sz = minZ; sz <= maxZ; sz++) {
+                for (int sy = minY; sy <= maxY; sy++) {
+                    List<Entity> bucket = index.bySection.get(SectionPos.asLong(sx, sy, sz));
+                    if (bucket == null) continue;
+                    for (int i = 0, n = bucket.size(); i < n; i++) {
+                        Entity e = bucket.get(i);
+                        if (!e.isRemoved() && e.getBoundingBox().intersects(box)) out.add(e);
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        Level level = event.getLevel();
+        Entity entity = event.getEntity();
+        if (!isIndexed(level) || !ModEntityTags.isImpactWatchable(entity)) return;
+        LEVELS.computeIfAbsent(level, l -> new LevelIndex())
+                .add(entity, SectionPos.asLong(entity.blockPosition()));
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!isIndexed(event.getLevel())) return;
+        LevelIndex index = LEVELS.get(event.getLevel());
+        if (index != null) index.remove(event.getEntity());
+    }
+
+    @SubscribeEvent
+    public static void onEnteringSection(EntityEvent.EnteringSection event) {
+        Entity entity = event.getEntity();
+        if (!isIndexed(entity.level())) return;
+        LevelIndex index = LEVELS.get(entity.level());
+        if (index != null) index.move(entity, event.getPackedNewPos());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        LevelAccessor level = event.getLevel();
+        if (level instanceof Level l && isIndexed(l)) LEVELS.remove(l);
+    }
+}
@@ -6,6 +6,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
@@ -20,6 +21,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *  - первая задержка RESOLVE_DELAY_TICKS между детектом и первым вызовом resolveSpell()
  *  - внутри resolveSpell() откладываем фактический resolver.resume(world) ещё на RESUME_DELAY_TICKS
  *  - поддерживает общий AtomicBoolean guard для координации с другими ворчерами
+ *  - на сервере зона сканирования снимается один раз в {@link BlockBaseline}; дальше скан читает снимок,
+ *    а изменённые клетки помечает подписка {@link BlockChangeNotifier}
  */
 public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
     private static final Logger LOGGER = LogManager.getLogger("arslauria-impact");
@@ -43,6 +46,10 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
     // guard для координации с другими похожими событиями
     private final AtomicBoolean guard; // may be null
 
+    // снимок зоны сканирования и подписка на её изменения (только сервер)
+    private BlockBaseline baseline;
+    private BlockChangeNotifier.Subscription subscription;
+
     // fields for deferred resume
     private boolean resumePending = false;
     private BlockPos deferredUsePos = null;
@@ -69,6 +76,13 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
         this.expectedBlock = expectedBlock;
         this.guard = guard;
 
+        if (world != null && !world.isClientSide() && center != null) {
+            BoundingBox zone = new BoundingBox(center.getX() - radius, center.getY() - vBelow, center.getZ() - radius,
+                    center.getX() + radius, center.getY() + vAbove, center.getZ() + radius);
+            baseline = BlockBaseline.capture(world, zone);
+            subscription = BlockChangeNotifier.subscribe(world, zone, (pos, oldState, newState) -> baseline.onBlockChanged(pos, newState));
+        }
+
         LOGGER.info("WatchingBlockPosDelayedEvent created for pos {} radius={} vBelow={} vAbove={} expected={} timeoutTicks={}",
                 center, radius, vBelow, vAbove, expectedBlock, timeoutTicks);
     }
@@ -98,6 +112,7 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
             LOGGER.debug("WatchingBlockPosDelayedEvent: guard set -> expiring posEvent for center {}", center);
             manuallyResolved = true;
             duration = 0;
+            release();
             return;
         }
 
@@ -128,15 +143,17 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
     }
     private BlockPos scanForBlockNearCenter() {
         if (center == null || world == null) return null;
+        if (baseline == null) return scanWorldNearCenter();
+
+        // снимок: неизменённые клетки — чтение массива
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dz = -radius; dz <= radius; dz++) {
                 for (int dy = -vBelow; dy <= vAbove; dy++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    BlockState st = world.getBlockState(p);
-                    if (!st.isAir()) {
-                        if (expectedBlock == null || st.getBlock().equals(expectedBlock)) {
-                            return p;
-                        }
+                    int x = center.getX() + dx, y = center.getY() + dy, z = center.getZ() + dz;
+                    BlockState st = baseline.stateAt(world, cursor, x, y, z);
+                    if (matches(st)) {
+                        return new BlockPos(x, y, z);
                     }
                 }
             }
@@ -144,6 +161,37 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
         return null;
     }
 
+    /**
+     * Скан зоны по миру через {@link BlockScanKernel} (без снимка, например на клиенте).
+     * Из подходящих клеток берётся первая в порядке dx, dz, dy — как у скана по снимку.
+     */
+    private BlockPos scanWorldNearCenter() {
+        int minX = center.getX() - radius, minY = center.getY() - vBelow, minZ = center.getZ() - radius;
+        int sizeY = vBelow + vAbove + 1, sizeZ = 2 * radius + 1;
+        BoundingBox zone = new BoundingBox(minX, minY, minZ,
+                center.getX() + radius, center.getY() + vAbove, center.getZ() + radius);
+
+        long[] best = {Long.MAX_VALUE};
+        BlockScanKernel.forEach(world, zone, true, (x, y, z, st) -> {
+            if (matches(st)) {
+                long key = ((long) (x - minX) * sizeZ + (z - minZ)) * sizeY + (y - minY);
+                if (key < best[0]) best[0] = key;
+            }
+            return false;
+        });
+        if (best[0] == Long.MAX_VALUE) return null;
+
+        long key = best[0];
+        int dy = (int) (key % sizeY);
+        int dz = (int) ((key / sizeY) % sizeZ);
+        int dx = (int) (key / sizeY / sizeZ);
+        return new BlockPos(minX + dx, minY + dy, minZ + dz);
+    }
+
+    private boolean matches(BlockState st) {
+        return !st.isAir() && (expectedBlock == null || st.getBlock().equals(expectedBlock));
+    }
+
     /**
      * Планируем resolve: НЕ вызываем resume немедленно, а откладываем на RESOLVE_DELAY_TICKS (если нужен)
      * и затем — внутри resolveSpell — ещё RESUME_DELAY_TICKS перед фактическим resume.
@@ -182,6 +230,7 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
         synchronized (this) {
             if (manuallyResolved) {
                 LOGGER.debug("resolveSpell: manuallyResolved=true -> skipping");
+                release();
                 return;
             }
 
@@ -247,7 +296,16 @@ public class WatchingBlockPosDelayedEvent extends DelayedSpellEvent {
             deferredUsePos = null;
             resolvedScheduled = false;
             duration = 0;
+            release();
+        }
+    }
+
+    private void release() {
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
         }
+        baseline = null;
     }
 
     @Override
@@ -82,8 +82,8 @@ public class WatchingDelayedSpellEvent extends DelayedSpellEvent {
             // Случай: watched == null -> попытаемся резолвить по позиции результата
             if (watched == null) {
                 LOGGER.debug("WatchingDelayedSpellEvent: watched == null -> attempt to resume using pos {}", entityBlockPos);
-                // найдем первый непустой блок под pos в пределах MAX_BLOCK_SEARCH_DEPTH
-                BlockPos usePos = findFirstNonAirBelowOrSelf(entityBlockPos, MAX_BLOCK_SEARCH_DEPTH);
+                // найдем поверхность под pos в пределах MAX_BLOCK_SEARCH_DEPTH
+                BlockPos usePos = findSurfaceBelowOrSelf(entityBlockPos, MAX_BLOCK_SEARCH_DEPTH);
                 if (usePos != null && !world.getBlockState(usePos).isAir()) {
                     LOGGER.info("WatchingDelayedSpellEvent: watched==null and found block at {} -> attempt resume", usePos);
                     attemptReplaceHitAndResume(usePos);
@@ -99,7 +99,7 @@ public class WatchingDelayedSpellEvent extends DelayedSpellEvent {
                 LOGGER.info("WatchingDelayedSpellEvent: watched.isRemoved() == true -> checking for nearby solid block to resume (last pos {})", entityBlockPos);
 
                 // Попытаемся найти блок под last pos
-                BlockPos usePos = findFirstNonAirBelowOrSelf(entityBlockPos, MAX_BLOCK_SEARCH_DEPTH);
+                BlockPos usePos = findSurfaceBelowOrSelf(entityBlockPos, MAX_BLOCK_SEARCH_DEPTH);
 
                 if (usePos != null && !world.getBlockState(usePos).isAir()) {
                     // дополнительная защита: блок должен быть не слишком далеко по Y от позиции сущности
@@ -126,15 +126,8 @@ public class WatchingDelayedSpellEvent extends DelayedSpellEvent {
             // 2) Если сущность ещё жива — проверяем блок прямо под ней (в ближайшей области).
             BlockPos at = watched.blockPosition();
 
-            // Ищем ближайший непустой блок в 0..NEARBY_BLOCK_CHECK_DEPTH под сущностью
-            BlockPos foundNearby = null;
-            for (int d = 0; d <= NEARBY_BLOCK_CHECK_DEPTH; d++) {
-                BlockPos p = at.below(d);
-                if (!world.getBlockState(p).isAir()) {
-                    foundNearby = p;
-                    break;
-                }
-            }
+            // Ищем поверхность в 0..NEARBY_BLOCK_CHECK_DEPTH под сущностью (хайтмап, без прохода колонны на открытом месте)
+            BlockPos foundNearby = BlockScanKernel.surfaceBelow(world, at, NEARBY_BLOCK_CHECK_DEPTH);
             if (foundNearby != null) {
                 // проверка вертикальной близости (на случай, если blockPosition вернул диковатые координаты)
                 double entityY = (entityExactPos != null) ? entityExactPos.y : at.getY();
@@ -252,16 +245,13 @@ public class WatchingDelayedSpellEvent extends DelayedSpellEvent {
     }
 
     /**
-     * Ищет первый непустой блок начиная с start и вниз до maxDepth (включая start).
+     * Ищет поверхность начиная с start и вниз до maxDepth (включая start): хайтмап чанка,
+     * проход колонны — только если start под поверхностью.
      * Возвращает найденную позицию или null (если не найдено).
      */
-    private BlockPos findFirstNonAirBelowOrSelf(BlockPos start, int maxDepth) {
+    private BlockPos findSurfaceBelowOrSelf(BlockPos start, int maxDepth) {
         if (start == null || world == null) return null;
-        for (int dy = 0; dy <= Math.max(0, maxDepth); dy++) {
-            BlockPos p = start.below(dy);
-            if (!world.getBlockState(p).isAir()) return p;
-        }
-        return null;
+        return BlockScanKernel.surfaceBelow(world, start, maxDepth);
     }
 
     @Override
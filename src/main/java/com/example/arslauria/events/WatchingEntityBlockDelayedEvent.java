@@ -1,5 +1,6 @@
 package com.example.arslauria.events;
 
+import com.example.arslauria.registry.ModEntityTags;
 import com.hollingsworth.arsnouveau.api.event.DelayedSpellEvent;
 import com.hollingsworth.arsnouveau.api.spell.SpellResolver;
 import net.minecraft.core.BlockPos;
@@ -8,6 +9,7 @@ import net.minecraft.world.entity.item.FallingBlockEntity;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.EntityHitResult;
 import net.minecraft.world.phys.HitResult;
@@ -15,16 +17,15 @@ import net.minecraft.world.phys.Vec3;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * WatchingEntityBlockDelayedEvent — ждёт появления блока под/вокруг наблюдаемой сущности (обычно FallingBlockEntity).
  *
  * Поведение:
- *  - делает baseline snapshot вокруг initialPos (R)
- *  - детектит появление нового блока в detect zone
+ *  - подписывается на изменения блоков в detect zone ({@link BlockChangeNotifier}), зона следует за сущностью
+ *  - детектит появление нового блока в detect zone по уведомлению, без опроса блоков на тике
+ *  - для FallingBlockEntity — резолв в тот же тик по точной позиции приземления ({@link FallingBlockLandingHooks})
  *  - при детекте пытается shortResolveNow (немедленный replace + resolver.resume(world))
  *    если shortResolveNow не удаётся — планирует deferred resolve (RESOLVE_DELAY_TICKS),
  *    внутри resolveSpell откладывает фактическое resume на RESUME_DELAY_TICKS (даёт шанс
@@ -43,10 +44,15 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
     private boolean resolvedScheduled = false;
     private boolean manuallyResolved = false;
 
-    private final Map<BlockPos, Block> baselineBlocks = new HashMap<>();
-    private static final int R = 3; // baseline radius (3 -> 7x7x7 snapshot)
     private BlockPos lastKnownPos = null;
 
+    // подписка на изменения блоков в detect zone (только сервер); сдвигается вслед за сущностью
+    private BlockChangeNotifier.Subscription subscription;
+    // первая позиция в detect zone, где появился новый непустой блок (из уведомления)
+    private BlockPos changedPos = null;
+    // подписка на приземление наблюдаемой FallingBlockEntity (только сервер)
+    private FallingBlockLandingHooks.Listener landingListener;
+
     // delays (уменьшены для более быстрой реакции)
     private static final int RESOLVE_DELAY_TICKS = 1; // тики до первого вызова resolveSpell
     private static final int RESUME_DELAY_TICKS = 1;  // дополнительная задержка внутри resolveSpell перед resume
@@ -107,21 +113,60 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
         BlockPos initialPos = (watched != null) ? watched.blockPosition()
                 : (initialHit instanceof BlockHitResult ? ((BlockHitResult) initialHit).getBlockPos() : BlockPos.ZERO);
 
-        try {
-            for (int dx = -R; dx <= R; dx++) {
-                for (int dy = -R; dy <= R; dy++) {
-                    for (int dz = -R; dz <= R; dz++) {
-                        BlockPos p = initialPos.offset(dx, dy, dz);
-                        BlockState state = world.getBlockState(p);
-                        baselineBlocks.put(p, state.getBlock());
-                    }
-                }
+        lastKnownPos = initialPos;
+        if (world != null && !world.isClientSide()) {
+            subscription = BlockChangeNotifier.subscribe(world, detectZone(initialPos), this::onBlockChanged);
+            if (watched instanceof FallingBlockEntity fbe) {
+                landingListener = this::onLanded;
+                FallingBlockLandingHooks.listen(fbe, landingListener);
             }
-            lastKnownPos = initialPos;
-            LOGGER.info("WatchingEntityBlockDelayedEvent created for entity {} at initialPos {} timeoutTicks={} baselineSize={}",
-                    watched != null ? watched.getType() : "null", initialPos, timeoutTicks, baselineBlocks.size());
-        } catch (Throwable t) {
-            LOGGER.warn("WatchingEntityBlockDelayedEvent: failed to create baseline: {}", t.toString());
+        }
+        LOGGER.info("WatchingEntityBlockDelayedEvent created for entity {} at initialPos {} timeoutTicks={}",
+                watched != null ? watched.getType() : "null", initialPos, timeoutTicks);
+    }
+
+    /** Уведомление {@link BlockChangeNotifier}: запоминаем первый новый непустой блок в detect zone. */
+    private void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        if (manuallyResolved || changedPos != null) return;
+        if (newState.isAir() || newState.getBlock() == oldState.getBlock()) return;
+        if (!isPositionInDetectZone(pos, lastKnownPos)) return;
+        changedPos = pos.immutable();
+        LOGGER.debug("onBlockChanged: new block at {} now={} was={} -> DETECT", changedPos, newState.getBlock(), oldState.getBlock());
+    }
+
+    /**
+     * Приземление наблюдаемого падающего блока: позиция точная, резолвим в этом же тике.
+     * Если guard уже занят связанным событием — обычный отложенный путь.
+     */
+    private void onLanded(FallingBlockEntity entity, BlockPos pos) {
+        landingListener = null;
+        if (manuallyResolved || resolvedScheduled) return;
+        lastKnownPos = pos;
+        changedPos = pos;
+        LOGGER.info("WatchingEntityBlockDelayedEvent: watched falling block landed at {} -> same-tick resolve", pos);
+        if (shortResolveNow(pos)) {
+            manuallyResolved = true;
+            duration = 0;
+            release();
+        } else {
+            scheduleResolveNextTickAndForceTick();
+        }
+    }
+
+    /** Зона подписки — ровно detect zone вокруг center (см. {@link #isPositionInDetectZone}). */
+    private static BoundingBox detectZone(BlockPos center) {
+        return new BoundingBox(center.getX() - H_DETECT, center.getY() - V_DETECT, center.getZ() - H_DETECT,
+                center.getX() + H_DETECT, center.getY(), center.getZ() + H_DETECT);
+    }
+
+    private void release() {
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+        if (landingListener != null && watched instanceof FallingBlockEntity fbe) {
+            FallingBlockLandingHooks.unlisten(fbe, landingListener);
+            landingListener = null;
         }
     }
 
@@ -141,20 +186,9 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
         if (world == null || resolver == null) return false;
         if (usePos == null) usePos = lastKnownPos != null ? lastKnownPos : BlockPos.ZERO;
 
-        // Попробуем выбрать приоритетную позицию: если baseline показывает изменённую позицию — используем её.
-        try {
-            for (Map.Entry<BlockPos, Block> entry : baselineBlocks.entrySet()) {
-                BlockPos p = entry.getKey();
-                Block prev = entry.getValue();
-                if (p == null) continue;
-                var st = world.getBlockState(p);
-                Block now = st.getBlock();
-                if (!st.isAir() && !now.equals(prev) && isPositionInDetectZone(p, lastKnownPos)) {
-                    usePos = p;
-                    break;
-                }
-            }
-        } catch (Throwable ignored) {}
+        // Приоритетная позиция — новый блок из уведомления, если он ещё на месте.
+        BlockPos changed = currentChangedPos();
+        if (changed != null) usePos = changed;
 
         try {
             // Заменим hitResult если это необходимо
@@ -200,7 +234,11 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
 
         try {
             if (watched != null && !watched.isRemoved()) {
-                lastKnownPos = watched.blockPosition();
+                BlockPos pos = watched.blockPosition();
+                if (!pos.equals(lastKnownPos) && subscription != null) {
+                    subscription.moveTo(detectZone(pos));
+                }
+                lastKnownPos = pos;
             }
 
             // CASE A: entity still exists -> try immediate detection & short resolve
@@ -210,21 +248,8 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                         LOGGER.info("WatchingEntityBlockDelayedEvent: detected NEW block near entity at {} -> try immediate shortResolveNow", lastKnownPos);
                         boolean did = false;
                         try {
-                            // pick chosen pos from baseline if present
-                            BlockPos chosen = null;
-                            try {
-                                for (Map.Entry<BlockPos, Block> entry : baselineBlocks.entrySet()) {
-                                    BlockPos p = entry.getKey();
-                                    Block prev = entry.getValue();
-                                    if (p == null) continue;
-                                    var st = world.getBlockState(p);
-                                    Block now = st.getBlock();
-                                    if (!st.isAir() && !now.equals(prev) && isPositionInDetectZone(p, lastKnownPos)) {
-                                        chosen = p;
-                                        break;
-                                    }
-                                }
-                            } catch (Throwable ignored) {}
+                            // позиция нового блока из уведомления, если он ещё на месте
+                            BlockPos chosen = currentChangedPos();
                             if (chosen == null) chosen = lastKnownPos;
 
                             did = shortResolveNow(chosen);
@@ -235,6 +260,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                         if (did) {
                             manuallyResolved = true;
                             duration = 0;
+                            release();
                             LOGGER.info("WatchingEntityBlockDelayedEvent: immediate resolve succeeded -> event consumed (pos={})", lastKnownPos);
                             return;
                         } else {
@@ -285,20 +311,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                 LOGGER.info("WatchingEntityBlockDelayedEvent: new block detected during grace -> try immediate resolve (pos={})", lastKnownPos);
                 boolean did = false;
                 try {
-                    BlockPos chosen = null;
-                    try {
-                        for (Map.Entry<BlockPos, Block> entry : baselineBlocks.entrySet()) {
-                            BlockPos p = entry.getKey();
-                            Block prev = entry.getValue();
-                            if (p == null) continue;
-                            var st = world.getBlockState(p);
-                            Block now = st.getBlock();
-                            if (!st.isAir() && !now.equals(prev) && isPositionInDetectZone(p, lastKnownPos)) {
-                                chosen = p;
-                                break;
-                            }
-                        }
-                    } catch (Throwable ignored) {}
+                    BlockPos chosen = currentChangedPos();
                     if (chosen == null) chosen = lastKnownPos;
 
                     did = shortResolveNow(chosen);
@@ -309,6 +322,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                 if (did) {
                     manuallyResolved = true;
                     duration = 0;
+                    release();
                     LOGGER.info("WatchingEntityBlockDelayedEvent: immediate resolve succeeded -> event consumed (pos={})", lastKnownPos);
                     return;
                 } else {
@@ -340,59 +354,31 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
     }
 
     /**
-     * Новая, более строгая проверка.
+     * Появился ли новый блок в detect zone вокруг center — по уведомлению {@link BlockChangeNotifier},
+     * без опроса блоков.
      */
     private boolean checkForNewBlockAround(BlockPos center) {
-        if (center == null || world == null) return false;
-        for (int dx = -R; dx <= R; dx++) {
-            for (int dy = -R; dy <= R; dy++) {
-                for (int dz = -R; dz <= R; dz++) {
-                    BlockPos p = center.offset(dx, dy, dz);
-                    BlockState state = world.getBlockState(p);
-                    Block now = state.getBlock();
-                    Block baseline = baselineBlocks.get(p);
-
-                    boolean isWithinDetectZone = isPositionInDetectZone(p, center);
-
-                    if (baseline == null) {
-                        if (!state.isAir()) {
-                            if (isWithinDetectZone) {
-                                if (resolvedScheduled) return true;
-                                if (lastDetectedPos != null && lastDetectedPos.equals(p) && tickCounter - lastDetectTick < 5) return true;
-                                lastDetectedPos = p;
-                                lastDetectTick = tickCounter;
-                                LOGGER.debug("checkForNewBlockAround: new block at {} (no baseline) now={} -> DETECT (within detect zone)", p, now);
-                                return true;
-                            } else {
-                                baselineBlocks.put(p, now);
-                                LOGGER.debug("checkForNewBlockAround: new block at {} (no baseline) now={} -> IGNORED (outside detect zone)", p, now);
-                                continue;
-                            }
-                        } else {
-                            baselineBlocks.put(p, now);
-                            continue;
-                        }
-                    }
-
-                    if (!now.equals(baseline) && !state.isAir()) {
-                        if (isWithinDetectZone) {
-                            if (resolvedScheduled) return true;
-                            if (lastDetectedPos != null && lastDetectedPos.equals(p) && tickCounter - lastDetectTick < 5) return true;
-                            lastDetectedPos = p;
-                            lastDetectTick = tickCounter;
-                            LOGGER.debug("checkForNewBlockAround: new block at {} now={} baseline={} -> DETECT (within detect zone)", p, now, baseline);
-                            return true;
-                        } else {
-                            LOGGER.debug("checkForNewBlockAround: new block at {} now={} baseline={} -> IGNORED (outside detect zone)", p, now, baseline);
-                            baselineBlocks.put(p, now);
-                        }
-                    }
-                }
+        if (center == null || world == null || changedPos == null) return false;
+        if (resolvedScheduled) return true;
+        if (currentChangedPos() != null) {
+            if (!changedPos.equals(lastDetectedPos)) {
+                lastDetectedPos = changedPos;
+                lastDetectTick = tickCounter;
             }
+            return true;
         }
+        // блок снова убран или сущность ушла — ждём следующего изменения
+        changedPos = null;
         return false;
     }
 
+    /** Позиция нового блока из уведомления, если он ещё стоит и попадает в detect zone; иначе null. */
+    private BlockPos currentChangedPos() {
+        if (changedPos == null || world == null) return null;
+        if (!isPositionInDetectZone(changedPos, lastKnownPos) || world.getBlockState(changedPos).isAir()) return null;
+        return changedPos;
+    }
+
     /**
      * Условие релевантности позиции p относительно центра (lastKnownPos / center):
      */
@@ -406,17 +392,12 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
     }
 
     /**
-     * Ищет первый непустой блок под start (включая start.below()), до заданной глубины.
+     * Поверхность приземления под start (включая start) до заданной глубины — по хайтмапу чанка,
+     * с проходом колонны только если start под поверхностью.
      */
-    private BlockPos findFirstNonAirBelow(BlockPos start, int maxDepth) {
+    private BlockPos findLandingSurface(BlockPos start, int maxDepth) {
         if (start == null || world == null) return null;
-        for (int dy = 0; dy <= maxDepth; dy++) {
-            BlockPos p = start.below(dy);
-            if (!world.getBlockState(p).isAir()) {
-                return p;
-            }
-        }
-        return null;
+        return BlockScanKernel.surfaceBelow(world, start, maxDepth);
     }
 
     @Override
@@ -427,43 +408,32 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
         synchronized (this) {
             if (manuallyResolved) {
                 LOGGER.debug("resolveSpell: manuallyResolved=true -> skipping super.resolveSpell()");
+                release();
                 return;
             }
 
             // Если это первый вход в resolveSpell после scheduleResolveNextTickAndForceTick(),
             // откладываем фактический resume на RESUME_DELAY_TICKS и сохраняем usePos.
             if (!resumePending) {
-                BlockPos usePos = null;
-
-                try {
-                    for (Map.Entry<BlockPos, Block> entry : baselineBlocks.entrySet()) {
-                        BlockPos p = entry.getKey();
-                        Block prev = entry.getValue();
-                        if (p == null) continue;
-                        var stateNow = world.getBlockState(p);
-                        Block now = stateNow.getBlock();
-                        if (!stateNow.isAir() && !now.equals(prev) && isPositionInDetectZone(p, lastKnownPos)) {
-                            usePos = p;
-                            LOGGER.info("resolveSpell (defer): found changed block at {} now={} baseline={}", p, now, prev);
-                            break;
-                        }
-                    }
-                } catch (Throwable t) {
-                    LOGGER.debug("resolveSpell (defer): baseline scan threw: {}", t.toString());
+                BlockPos usePos = currentChangedPos();
+                if (usePos != null) {
+                    LOGGER.info("resolveSpell (defer): using notified block change at {}", usePos);
                 }
 
                 if (usePos == null && lastKnownPos != null) {
                     BlockPos best = null;
                     int searchRad = 2;
+                    // одна колонна — одно чтение хайтмапа; проход вниз только под навесом
+                    BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
                     for (int dx = -searchRad; dx <= searchRad; dx++) {
                         for (int dz = -searchRad; dz <= searchRad; dz++) {
-                            BlockPos colTop = lastKnownPos.offset(dx, 0, dz);
-                            BlockPos found = findFirstNonAirBelow(colTop.above(6), 12);
+                            BlockPos.MutableBlockPos found = BlockScanKernel.surfaceBelow(world,
+                                    lastKnownPos.getX() + dx, lastKnownPos.getY() + 6, lastKnownPos.getZ() + dz, 12, cursor);
                             if (found != null) {
                                 if (best == null || found.getY() > best.getY()) {
-                                    best = found;
+                                    best = found.immutable();
                                 } else if (expectedBlock != null && world.getBlockState(found).getBlock().equals(expectedBlock)) {
-                                    best = found;
+                                    best = found.immutable();
                                 }
                             }
                         }
@@ -472,7 +442,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                         usePos = best;
                         LOGGER.info("resolveSpell (defer): neighborhood-scan chose {}", usePos);
                     } else {
-                        BlockPos ground = findFirstNonAirBelow(lastKnownPos, Math.max(V_DETECT, 6));
+                        BlockPos ground = findLandingSurface(lastKnownPos, Math.max(V_DETECT, 6));
                         usePos = ground != null ? ground : lastKnownPos;
                         LOGGER.info("resolveSpell (defer): fallback to ground/lastKnownPos {}", usePos);
                     }
@@ -509,13 +479,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
                 try {
                     Entity target = eRes.getEntity();
                     boolean entityRemoved = (target == null || target.isRemoved());
-                    boolean isMageLike = false;
-                    if (target != null && target.getType() != null) {
-                        String typeStr = target.getType().toString().toLowerCase();
-                        if (typeStr.contains("mage") || typeStr.contains("mage_block") || typeStr.contains("enchanted")) {
-                            isMageLike = true;
-                        }
-                    }
+                    boolean isMageLike = ModEntityTags.isImpactWatchable(target);
                     if (entityRemoved || isMageLike) {
                         BlockHitResult bhr = new BlockHitResult(Vec3.atCenterOf(usePos), net.minecraft.core.Direction.UP, usePos, false);
                         Object old = null;
@@ -554,6 +518,7 @@ public class WatchingEntityBlockDelayedEvent extends DelayedSpellEvent {
             deferredUsePos = null;
             resolvedScheduled = false;
             duration = 0;
+            release();
         }
     }
 
@@ -1,5 +1,7 @@
 package com.example.arslauria.glyphs.effect_glyphs;
 
+import com.example.arslauria.network.OutboundBus;
+import com.example.arslauria.registry.ModRegistry;
 import com.hollingsworth.arsnouveau.api.spell.*;
 import com.hollingsworth.arsnouveau.api.util.ANExplosion;
 import com.hollingsworth.arsnouveau.common.spell.augment.AugmentAOE;
@@ -8,7 +10,6 @@ import com.hollingsworth.arsnouveau.common.spell.augment.AugmentDampen;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.level.Explosion;
@@ -65,10 +66,13 @@ public class EffectBlast extends AbstractEffect implements IDamageEffect {
             createExplosionParticles(serverLevel, (float)pos.x(), (float)pos.y(), (float)pos.z(), explosionRadius);
         }
 
-        // Воспроизводим звук взрыва
-        world.playSound(null, pos.x(), pos.y(), pos.z(),
-                SoundEvents.GENERIC_EXPLODE, SoundSource.PLAYERS,
-                4.0F, (1.0F + (world.random.nextFloat() - world.random.nextFloat()) * 0.2F) * 0.7F);
+        // Воспроизводим звук взрыва (через OutboundBus — в одном bundle с частицами)
+        if (world instanceof ServerLevel serverLevel) {
+            OutboundBus.broadcastSound(serverLevel, null, pos.x(), pos.y(), pos.z(),
+                    ModRegistry.BLAST.get(), SoundSource.PLAYERS,
+                    4.0F, (1.0F + (world.random.nextFloat() - world.random.nextFloat()) * 0.2F) * 0.7F,
+                    false);
+        }
     }
 
     private void createCustomExplosion(Level world, LivingEntity shooter, double x, double y, double z,
@@ -88,8 +92,12 @@ public class EffectBlast extends AbstractEffect implements IDamageEffect {
     }
 
     private void createExplosionParticles(ServerLevel world, float x, float y, float z, float radius) {
+        // Все пакеты частиц идут через OutboundBus и уходят игроку одним bundle в конце тика
         // Создаем основные взрывные партиклы
-        world.sendParticles(ParticleTypes.EXPLOSION, x, y, z, 1, 0, 0, 0, 0);
+        OutboundBus.broadcastParticles(world, ParticleTypes.EXPLOSION, x, y, z, 1, 0, 0, 0, 0, false);
+
+        // Дым и вспышки косметические: если рядом никому не нужны — даже не генерируем
+        if (!OutboundBus.anyoneWantsParticles(world, x, y, z, true)) return;
 
         // Создаем дополнительные партиклы дыма
         int smokeParticles = (int)(30 * radius);
@@ -98,9 +106,9 @@ public class EffectBlast extends AbstractEffect implements IDamageEffect {
             double offsetY = (world.random.nextDouble() - 0.5) * radius * 0.5;
             double offsetZ = (world.random.nextDouble() - 0.5) * radius * 0.5;
 
-            world.sendParticles(ParticleTypes.POOF,
+            OutboundBus.broadcastParticles(world, ParticleTypes.POOF,
                     x + offsetX, y + offsetY, z + offsetZ,
-                    1, 0, 0, 0, 0.1f);
+                    1, 0, 0, 0, 0.1f, true);
         }
 
         // Создаем партиклы вспышки
@@ -110,9 +118,9 @@ public class EffectBlast extends AbstractEffect implements IDamageEffect {
             double offsetY = (world.random.nextDouble() - 0.5) * radius;
             double offsetZ = (world.random.nextDouble() - 0.5) * radius;
 
-            world.sendParticles(ParticleTypes.FLASH,
+            OutboundBus.broadcastParticles(world, ParticleTypes.FLASH,
                     x + offsetX, y + offsetY, z + offsetZ,
-                    1, 0, 0, 0, 0);
+                    1, 0, 0, 0, 0, true);
         }
     }
 
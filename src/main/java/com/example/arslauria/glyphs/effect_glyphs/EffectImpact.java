@@ -1,9 +1,11 @@
 package com.example.arslauria.glyphs.effect_glyphs;
 
 import com.example.arslauria.Lauria;
+import com.example.arslauria.events.WatchableEntityIndex;
 import com.example.arslauria.events.WatchingBlockPosDelayedEvent;
 import com.example.arslauria.events.WatchingDelayedSpellEvent;
 import com.example.arslauria.events.WatchingEntityBlockDelayedEvent;
+import com.example.arslauria.registry.ModEntityTags;
 import com.hollingsworth.arsnouveau.api.event.EventQueue;
 import com.hollingsworth.arsnouveau.api.spell.AbstractAugment;
 import com.hollingsworth.arsnouveau.api.spell.AbstractEffect;
@@ -28,13 +30,13 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nonnull;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * EffectImpact — эффект, который ищет рядом "mage block" (enchanted_mage_block / FallingBlockEntity)
+ * EffectImpact — эффект, который ищет рядом "mage block" (типы из тегов {@link ModEntityTags})
  * и ждёт, пока он "приземлится" или исчезнет, затем резолвит спелл.
  *
  * Обновлён: приоритетный поиск FallingBlockEntity + рефактор combined-watchers в отдельный метод.
@@ -55,49 +57,79 @@ public class EffectImpact extends AbstractEffect {
     }
 
     /**
-     * Быстрая эвристика для определения "mage-like" сущности.
+     * "Mage-like" сущность — тип из тега {@code arslauria:impact_watchable} (см. {@link ModEntityTags}).
      */
     private boolean looksLikeMageBlock(Entity e) {
-        if (e == null) return false;
-        String typeStr = e.getType() != null ? e.getType().toString().toLowerCase() : "";
-        if (typeStr.contains("mage_block")
-                || typeStr.contains("enchanted_mage_block")
-                || typeStr.contains("enchanted_falling_block")
-                || typeStr.contains("falling")) {
-            return true;
-        }
-        if (e instanceof FallingBlockEntity) {
-            return true;
-        }
-        return false;
+        return ModEntityTags.isImpactWatchable(e);
     }
 
-    /**
-     * Нахождение ближайшей FallingBlockEntity в радиусе (или null).
-     */
-    private Entity findNearestFalling(Level world, Vec3 pos, double maxRadius) {
-        if (world == null || pos == null) return null;
-        AABB aabb = new AABB(BlockPos.containing(pos)).inflate(maxRadius);
-        List<FallingBlockEntity> fallings = world.getEntitiesOfClass(FallingBlockEntity.class, aabb, e -> true);
-        if (fallings == null || fallings.isEmpty()) return null;
-        return fallings.stream()
-                .min(Comparator.comparingDouble(e -> e.distanceToSqr(pos)))
-                .orElse(null);
+    /** Кольца поиска mage-like сущности вокруг точки попадания по блоку (ближнее непустое выигрывает). */
+    private static final double[] BLOCK_HIT_RINGS = {1.5, 3.0, 6.0, 12.0, 24.0};
+    private static final double[] ENTITY_HIT_RINGS = {12.0};
+    private static final double[] NO_RINGS = {};
+
+    /** Ближайшие кандидаты вокруг точки, найденные одним запросом (см. {@link #searchCandidates}). */
+    private static final class Candidates {
+        Entity falling;   // ближайшая FallingBlockEntity в пределах fallingRadius
+        Entity mageLike;  // ближайшая mage-like сущность из самого внутреннего непустого кольца
     }
 
     /**
-     * Явный вызов getEntitiesOfClass(Entity.class, ...) чтобы избежать неоднозначности перегрузки.
-     * Возвращает ближайшую mage-like сущность (по расстоянию), или null.
+     * Один запрос сущностей на максимальный радиус вместо серии запросов с растущим радиусом;
+     * на сервере — по {@link WatchableEntityIndex}, без обхода прочих сущностей.
+     *
+     * Кольцо сущности — наименьший радиус r из rings, при котором её хитбокс пересекает
+     * {@code AABB(BlockPos.containing(pos)).inflate(r)} (то же условие, что у отдельного запроса на r).
+     * Mage-like кандидат — ближайший по расстоянию внутри самого внутреннего непустого кольца;
+     * падающий — ближайшая FallingBlockEntity в пределах fallingRadius.
      */
-    private Entity findNearbyMageLikeEntity(Level world, Vec3 pos, double maxRadius) {
-        if (world == null || pos == null) return null;
+    private Candidates searchCandidates(Level world, Vec3 pos, double fallingRadius, double[] rings) {
+        Candidates result = new Candidates();
+        if (world == null || pos == null) return result;
+
         BlockPos bp = BlockPos.containing(pos);
+        double maxRadius = fallingRadius;
+        for (double r : rings) maxRadius = Math.max(maxRadius, r);
+
         AABB box = new AABB(bp).inflate(maxRadius);
-        List<Entity> found = world.getEntitiesOfClass(Entity.class, box, this::looksLikeMageBlock);
-        if (found == null || found.isEmpty()) return null;
-        return found.stream()
-                .min(Comparator.comparingDouble(e -> e.distanceToSqr(pos)))
-                .orElse(null);
+        List<Entity> found;
+        if (WatchableEntityIndex.isIndexed(world)) {
+            // сервер: только отслеживаемые сущности из секций в радиусе
+            found = new ArrayList<>();
+            WatchableEntityIndex.collect(world, box, found);
+        } else {
+            found = world.getEntitiesOfClass(Entity.class, box, this::looksLikeMageBlock);
+        }
+        double bestFalling = Double.MAX_VALUE;
+        int bestRing = rings.length;
+        double bestMage = Double.MAX_VALUE;
+        for (Entity e : found) {
+            double gap = chebyshevGap(bp, e.getBoundingBox());
+            double distSq = e.distanceToSqr(pos);
+
+            if (e instanceof FallingBlockEntity && gap < fallingRadius && distSq < bestFalling) {
+                bestFalling = distSq;
+                result.falling = e;
+            }
+
+            int ring = 0;
+            while (ring < rings.length && gap >= rings[ring]) ring++;
+            if (ring == rings.length) continue;
+            if (ring < bestRing || (ring == bestRing && distSq < bestMage)) {
+                bestRing = ring;
+                bestMage = distSq;
+                result.mageLike = e;
+            }
+        }
+        return result;
+    }
+
+    /** Наибольший по осям зазор между блоком bp и хитбоксом (0, если пересекаются). */
+    private static double chebyshevGap(BlockPos bp, AABB box) {
+        double gx = Math.max(0.0, Math.max(box.minX - (bp.getX() + 1), bp.getX() - box.maxX));
+        double gy = Math.max(0.0, Math.max(box.minY - (bp.getY() + 1), bp.getY() - box.maxY));
+        double gz = Math.max(0.0, Math.max(box.minZ - (bp.getZ() + 1), bp.getZ() - box.maxZ));
+        return Math.max(gx, Math.max(gy, gz));
     }
 
     /**
@@ -168,10 +200,11 @@ public class EffectImpact extends AbstractEffect {
 
         Vec3 hitVec = rayTraceResult.getLocation();
 
-        double[] radii = {1.5, 3.0, 6.0, 12.0, 24.0};
+        // Один запрос: ближайшая FallingBlockEntity в радиусе 12 и ближайшая mage-like по кольцам
+        Candidates candidates = searchCandidates(world, hitVec, 12.0, BLOCK_HIT_RINGS);
 
-        // Сначала — явный приоритетный поиск FallingBlockEntity в небольшом радиусе (надёжнее, чем сортировка)
-        Entity nearestFalling = findNearestFalling(world, hitVec, 12.0);
+        // Сначала — приоритетный FallingBlockEntity в небольшом радиусе (надёжнее, чем сортировка)
+        Entity nearestFalling = candidates.falling;
         if (nearestFalling != null) {
             LOGGER.info("EffectImpact: prioritized nearest FallingBlockEntity {} at {}", nearestFalling.getType(), nearestFalling.blockPosition());
             // короткий таймаут для падающих блоков
@@ -183,88 +216,85 @@ public class EffectImpact extends AbstractEffect {
         }
 
         // 1) Сначала ищем nearby mage-like entity (например enchanted_mage_block / enchanted_falling_block)
-        for (double r : radii) {
-            Entity candidate = findNearbyMageLikeEntity(world, hitVec, r);
-            LOGGER.debug("EffectImpact: search radius={}, candidate={}", r,
-                    candidate != null ? candidate.getType().toString() + "@" + candidate.blockPosition() : "null");
-            if (candidate != null) {
-                LOGGER.info("EffectImpact: Found candidate entity of type {} at {} (isRemoved={})",
-                        candidate.getType(), candidate.blockPosition(), candidate.isRemoved());
-
-                String typeStr = candidate.getType() != null ? candidate.getType().toString().toLowerCase() : "";
-                boolean isEnchantedFalling = typeStr.contains("enchanted_falling_block") || (candidate instanceof FallingBlockEntity);
-
-                if (isEnchantedFalling) {
-                    LOGGER.info("EffectImpact: candidate looks like enchanted/falling block -> creating combined watchers for entity {}", candidate.blockPosition());
-                    AtomicBoolean guard = new AtomicBoolean(false);
-
-                    // попытка извлечь ожидаемый блок из FallingBlockEntity
-                    Block expectedBlock = null;
-                    if (candidate instanceof FallingBlockEntity fbe) {
-                        try {
-                            expectedBlock = fbe.getBlockState().getBlock();
-                        } catch (Throwable ignored) { expectedBlock = null; }
-                    }
+        Entity candidate = candidates.mageLike;
+        LOGGER.debug("EffectImpact: ring search candidate={}",
+                candidate != null ? candidate.getType().toString() + "@" + candidate.blockPosition() : "null");
+        if (candidate != null) {
+            LOGGER.info("EffectImpact: Found candidate entity of type {} at {} (isRemoved={})",
+                    candidate.getType(), candidate.blockPosition(), candidate.isRemoved());
+
+            boolean isEnchantedFalling = ModEntityTags.isImpactFalling(candidate);
+
+            if (isEnchantedFalling) {
+                LOGGER.info("EffectImpact: candidate looks like enchanted/falling block -> creating combined watchers for entity {}", candidate.blockPosition());
+                AtomicBoolean guard = new AtomicBoolean(false);
+
+                // попытка извлечь ожидаемый блок из FallingBlockEntity
+                Block expectedBlock = null;
+                if (candidate instanceof FallingBlockEntity fbe) {
+                    try {
+                        expectedBlock = fbe.getBlockState().getBlock();
+                    } catch (Throwable ignored) { expectedBlock = null; }
+                }
 
-                    // прогнозируем позицию через N тиков (эвристика)
-                    Vec3 entityPos = candidate.position();
-                    Vec3 vel = candidate.getDeltaMovement() != null ? candidate.getDeltaMovement() : Vec3.ZERO;
-                    double predictTicks = 6.0; // уменьшил с 10 до 6
-                    Vec3 predicted = entityPos.add(vel.scale(predictTicks));
-                    BlockPos center = BlockPos.containing(predicted);
+                // прогнозируем позицию через N тиков (эвристика)
+                Vec3 entityPos = candidate.position();
+                Vec3 vel = candidate.getDeltaMovement() != null ? candidate.getDeltaMovement() : Vec3.ZERO;
+                double predictTicks = 6.0; // уменьшил с 10 до 6
+                Vec3 predicted = entityPos.add(vel.scale(predictTicks));
+                BlockPos center = BlockPos.containing(predicted);
 
-                    double horizSpeed = Math.sqrt(vel.x * vel.x + vel.z * vel.z);
-                    int radiusInt = Math.max(3, (int) Math.ceil(horizSpeed * 5.0)); // минимальный радиус 3
-                    int verticalBelow = 2;
-                    int verticalAbove = 1;
-                    int timeoutTicks = 20 * 10; // 10 секунд
+                double horizSpeed = Math.sqrt(vel.x * vel.x + vel.z * vel.z);
+                int radiusInt = Math.max(3, (int) Math.ceil(horizSpeed * 5.0)); // минимальный радиус 3
+                int verticalBelow = 2;
+                int verticalAbove = 1;
+                int timeoutTicks = 20 * 10; // 10 секунд
 
-                    LOGGER.info("EffectImpact: predicted landing center {} from pos {} vel={} -> radius={} (predTicks={}) expectedBlock={}",
-                            center, entityPos, vel, radiusInt, predictTicks, expectedBlock != null ? expectedBlock.toString() : "null");
+                LOGGER.info("EffectImpact: predicted landing center {} from pos {} vel={} -> radius={} (predTicks={}) expectedBlock={}",
+                        center, entityPos, vel, radiusInt, predictTicks, expectedBlock != null ? expectedBlock.toString() : "null");
 
-                    var posEvent = new WatchingBlockPosDelayedEvent(center, radiusInt, verticalBelow, verticalAbove, expectedBlock,
-                            rayTraceResult, world, resolver, timeoutTicks, guard);
+                var posEvent = new WatchingBlockPosDelayedEvent(center, radiusInt, verticalBelow, verticalAbove, expectedBlock,
+                        rayTraceResult, world, resolver, timeoutTicks, guard);
 
-                    var entityEvent = new WatchingEntityBlockDelayedEvent(candidate, rayTraceResult, world, resolver, timeoutTicks, guard);
+                var entityEvent = new WatchingEntityBlockDelayedEvent(candidate, rayTraceResult, world, resolver, timeoutTicks, guard);
 
-                    spellContext.delay(entityEvent);
-                    spellContext.delay(posEvent);
+                spellContext.delay(entityEvent);
+                spellContext.delay(posEvent);
 
-                    LOGGER.info("EffectImpact: delayed combined events (pos + entity) for {} (currentIndex={})", center, spellContext.getCurrentIndex());
+                LOGGER.info("EffectImpact: delayed combined events (pos + entity) for {} (currentIndex={})", center, spellContext.getCurrentIndex());
 
-                    if (!world.isClientSide()) {
-                        EventQueue.getServerInstance().addEvent(posEvent);
-                        EventQueue.getServerInstance().addEvent(entityEvent);
-                        LOGGER.info("EffectImpact: added combined events to EventQueue for pos {} and entity {}", center, candidate.blockPosition());
-                    }
-                    return;
+                if (!world.isClientSide()) {
+                    EventQueue.getServerInstance().addEvent(posEvent);
+                    EventQueue.getServerInstance().addEvent(entityEvent);
+                    LOGGER.info("EffectImpact: added combined events to EventQueue for pos {} and entity {}", center, candidate.blockPosition());
                 }
+                return;
+            }
 
-                // Оригинальная логика для enchanted_mage_block и других mage-like сущностей
-                if (candidate.isRemoved()) {
-                    LOGGER.info("EffectImpact: candidate already removed -> calling resolver.resume(world) immediately for pos {}", candidate.blockPosition());
-                    try {
-                        resolver.resume(world);
-                        LOGGER.info("EffectImpact: resolver.resume(world) called successfully for pos {}", candidate.blockPosition());
-                    } catch (Throwable t) {
-                        LOGGER.warn("EffectImpact: resolver.resume(world) threw exception: {}", t.toString());
-                    }
-                    return;
+            // Оригинальная логика для enchanted_mage_block и других mage-like сущностей
+            if (candidate.isRemoved()) {
+                LOGGER.info("EffectImpact: candidate already removed -> calling resolver.resume(world) immediately for pos {}", candidate.blockPosition());
+                try {
+                    resolver.resume(world);
+                    LOGGER.info("EffectImpact: resolver.resume(world) called successfully for pos {}", candidate.blockPosition());
+                } catch (Throwable t) {
+                    LOGGER.warn("EffectImpact: resolver.resume(world) threw exception: {}", t.toString());
                 }
+                return;
+            }
 
-                int timeoutTicks = 20 * 60; // 60s по умолчанию
-                var event = new WatchingEntityBlockDelayedEvent(candidate, rayTraceResult, world, resolver, timeoutTicks);
+            int timeoutTicks = 20 * 60; // 60s по умолчанию
+            var event = new WatchingEntityBlockDelayedEvent(candidate, rayTraceResult, world, resolver, timeoutTicks);
 
-                LOGGER.info("EffectImpact: about to delay event for candidate at {} (currentIndex={})", candidate.blockPosition(), spellContext.getCurrentIndex());
-                spellContext.delay(event);
-                LOGGER.info("EffectImpact: delayed event for candidate at {} (currentIndex={})", candidate.blockPosition(), spellContext.getCurrentIndex());
+            LOGGER.info("EffectImpact: about to delay event for candidate at {} (currentIndex={})", candidate.blockPosition(), spellContext.getCurrentIndex());
+            spellContext.delay(event);
+            LOGGER.info("EffectImpact: delayed event for candidate at {} (currentIndex={})", candidate.blockPosition(), spellContext.getCurrentIndex());
 
-                if (!world.isClientSide()) {
-                    EventQueue.getServerInstance().addEvent(event);
-                    LOGGER.info("EffectImpact: added event to EventQueue for {}", candidate.blockPosition());
-                }
-                return;
+            if (!world.isClientSide()) {
+                EventQueue.getServerInstance().addEvent(event);
+                LOGGER.info("EffectImpact: added event to EventQueue for {}", candidate.blockPosition());
             }
+            return;
         }
 
         // 2) Если nearby entity не найден — проверяем сам блок, по которому попали.
@@ -327,18 +357,17 @@ public class EffectImpact extends AbstractEffect {
             return;
         }
 
-        String typeStr = hit.getType() != null ? hit.getType().toString().toLowerCase() : "";
         boolean looksLikeMage = looksLikeMageBlock(hit);
-        boolean isFalling = typeStr.contains("enchanted_falling_block") || (hit instanceof FallingBlockEntity);
-        boolean isMageBlock = typeStr.contains("mage_block") || typeStr.contains("enchanted_mage_block");
+        boolean isFalling = ModEntityTags.isImpactFalling(hit);
+        boolean isMageBlock = ModEntityTags.isImpactMageBlock(hit);
 
-        LOGGER.info("EffectImpact: hit entity typeStr='{}', looksLikeMage={}, isFalling={}, isMageBlock={}",
-                typeStr, looksLikeMage, isFalling, isMageBlock);
+        LOGGER.info("EffectImpact: hit entity type={}, looksLikeMage={}, isFalling={}, isMageBlock={}",
+                hit.getType(), looksLikeMage, isFalling, isMageBlock);
 
         // Special-case: если у нас статичный mage_block, попробуем найти nearby falling entity (fallback)
         if (isMageBlock && !isFalling) {
             LOGGER.debug("EffectImpact: hit is mage_block (non-falling) — try to locate nearby falling entity before scheduling WatchingDelayedSpellEvent.");
-            Entity nearbyFalling = findNearestFalling(world, hit.position(), 6.0);
+            Entity nearbyFalling = searchCandidates(world, hit.position(), 6.0, NO_RINGS).falling;
             if (nearbyFalling != null) {
                 LOGGER.info("EffectImpact: found nearby falling {} at {} while hit was mage_block -> handle as falling", nearbyFalling.getType(), nearbyFalling.blockPosition());
                 int timeoutTicks = 20 * 10;
@@ -434,8 +463,9 @@ public class EffectImpact extends AbstractEffect {
         // Not mage-like: fallback to searching nearby mage-like entity (and prioritize falling)
         Vec3 hitVec = rayTraceResult.getLocation();
 
-        // try prioritize nearby falling first
-        Entity nearbyFalling = findNearestFalling(world, hitVec, 12.0);
+        // один запрос на оба поиска; falling — в приоритете
+        Candidates candidates = searchCandidates(world, hitVec, 12.0, ENTITY_HIT_RINGS);
+        Entity nearbyFalling = candidates.falling;
         if (nearbyFalling != null) {
             LOGGER.info("EffectImpact: Nearby prioritized falling {} at {}", nearbyFalling.getType(), nearbyFalling.blockPosition());
             int timeoutTicks = 20 * 10;
@@ -445,14 +475,13 @@ public class EffectImpact extends AbstractEffect {
             }
         }
 
-        Entity nearby = findNearbyMageLikeEntity(world, hitVec, 12.0);
+        Entity nearby = candidates.mageLike;
         LOGGER.debug("EffectImpact: Nearby search for mage-like entity returned: {}", nearby != null ? nearby.getType().toString() + "@" + nearby.blockPosition() : "null");
         if (nearby != null) {
             LOGGER.info("EffectImpact: Found nearby entity {} at {} (isRemoved={})", nearby.getType(), nearby.blockPosition(), nearby.isRemoved());
 
-            String nearbyTypeStr = nearby.getType() != null ? nearby.getType().toString().toLowerCase() : "";
-            boolean nearbyIsFalling = nearbyTypeStr.contains("enchanted_falling_block") || (nearby instanceof FallingBlockEntity);
-            boolean nearbyIsMageBlock = nearbyTypeStr.contains("mage_block") || nearbyTypeStr.contains("enchanted_mage_block");
+            boolean nearbyIsFalling = ModEntityTags.isImpactFalling(nearby);
+            boolean nearbyIsMageBlock = ModEntityTags.isImpactMageBlock(nearby);
 
             if (nearbyIsMageBlock && !nearbyIsFalling) {
                 LOGGER.info("EffectImpact: nearby is mage_block (non-falling) -> using WatchingDelayedSpellEvent for {}", nearby.blockPosition());
@@ -0,0 +1,14 @@
+package com.example.arslauria.mixin;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import net.minecraft.server.level.ChunkMap;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(ChunkMap.class)
+public interface ChunkMapAccessor {
+
+    // значения — ChunkMap.TrackedEntity (пакетный класс), читаются через TrackedEntityAccessor
+    @Accessor("entityMap")
+    Int2ObjectMap<?> arslauria$getEntityMap();
+}
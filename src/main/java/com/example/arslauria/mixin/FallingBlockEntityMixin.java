@@ -0,0 +1,48 @@
+package com.example.arslauria.mixin;
+
+import com.example.arslauria.events.FallingBlockLandingHooks;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.item.FallingBlockEntity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(FallingBlockEntity.class)
+public abstract class FallingBlockEntityMixin {
+
+    @Unique
+    private BlockPos arslauria$landedAt;
+
+    // точка, где падающий блок ставит себя в мир; запоминаем только успешную установку
+    // (WrapOperation, а не Redirect — совместимо с другими модами, оборачивающими этот же вызов)
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/Level;setBlock(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;I)Z"))
+    private boolean arslauria$recordLanding(Level level, BlockPos pos, BlockState state, int flags,
+                                            Operation<Boolean> original) {
+        boolean placed = original.call(level, pos, state, flags);
+        if (placed && !level.isClientSide()) {
+            arslauria$landedAt = pos.immutable();
+        }
+        return placed;
+    }
+
+    // уведомляем после завершения тика сущности (блок стоит, сущность уже удалена);
+    // удалена без установки блока (выпала предметом, истекло время) — подписки больше не нужны
+    @Inject(method = "tick", at = @At("TAIL"))
+    private void arslauria$dispatchLanding(CallbackInfo ci) {
+        FallingBlockEntity self = (FallingBlockEntity) (Object) this;
+        BlockPos pos = arslauria$landedAt;
+        if (pos != null) {
+            arslauria$landedAt = null;
+            FallingBlockLandingHooks.onLanded(self, pos);
+        } else if (self.isRemoved()) {
+            FallingBlockLandingHooks.onRemovedWithoutLanding(self);
+        }
+    }
+}
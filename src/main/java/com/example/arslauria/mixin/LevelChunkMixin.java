@@ -0,0 +1,24 @@
+package com.example.arslauria.mixin;
+
+import com.example.arslauria.events.BlockChangeNotifier;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin {
+
+    // setBlockState возвращает прежнее состояние только при реальном изменении (иначе null)
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void arslauria$onSetBlockState(BlockPos pos, BlockState state, boolean isMoving,
+                                           CallbackInfoReturnable<BlockState> cir) {
+        BlockState old = cir.getReturnValue();
+        if (old != null) {
+            BlockChangeNotifier.onBlockChanged(((LevelChunk) (Object) this).getLevel(), pos, old, state);
+        }
+    }
+}
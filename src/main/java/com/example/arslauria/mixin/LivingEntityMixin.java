@@ -0,0 +1,19 @@
+package com.example.arslauria.mixin;
+
+import com.example.arslauria.client.ClientBarrierPrediction;
+import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityMixin {
+
+    // handleDamageEvent вызывается только на клиенте (ClientboundDamageEventPacket)
+    @Inject(method = "handleDamageEvent", at = @At("TAIL"))
+    private void arslauria$onHandleDamageEvent(DamageSource source, CallbackInfo ci) {
+        ClientBarrierPrediction.onDamageObserved((LivingEntity) (Object) this, source);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.arslauria.mixin;
+
+import net.minecraft.server.network.ServerPlayerConnection;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.Set;
+
+@Mixin(targets = "net.minecraft.server.level.ChunkMap$TrackedEntity")
+public interface TrackedEntityAccessor {
+
+    // игроки, которым сущность сейчас отправляется (то же множество, что у PacketDistributor.TRACKING_ENTITY)
+    @Accessor("seenBy")
+    Set<ServerPlayerConnection> arslauria$getSeenBy();
+}
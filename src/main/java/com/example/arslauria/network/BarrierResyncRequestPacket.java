@@ -0,0 +1,39 @@
+package com.example.arslauria.network;
+
+import com.example.arslauria.effects.BarrierEffect;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Запрос клиента на снимок состояния барьера одной сущности.
+ * Отправляется, когда клиент обнаружил пропуск в seq у {@link BarrierSyncPacket}.
+ */
+public record BarrierResyncRequestPacket(int entityId) {
+    // запросы на сущности дальше этого расстояния игнорируются — клиент их всё равно не отслеживает
+    private static final double MAX_RESYNC_DISTANCE_SQ = 128.0 * 128.0;
+
+    public static void encode(BarrierResyncRequestPacket pkt, FriendlyByteBuf buf) {
+        buf.writeInt(pkt.entityId);
+    }
+
+    public static BarrierResyncRequestPacket decode(FriendlyByteBuf buf) {
+        return new BarrierResyncRequestPacket(buf.readInt());
+    }
+
+    public static void handle(BarrierResyncRequestPacket pkt, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            ServerPlayer sender = ctx.get().getSender();
+            if (sender == null) return;
+
+            Entity entity = sender.level().getEntity(pkt.entityId);
+            if (entity != null && entity.distanceToSqr(sender) > MAX_RESYNC_DISTANCE_SQ) return;
+
+            BarrierEffect.sendSnapshot(sender, pkt.entityId, entity);
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
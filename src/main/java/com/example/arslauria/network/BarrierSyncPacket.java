@@ -4,36 +4,71 @@ import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkEvent;
 import com.example.arslauria.client.ClientBarrierData;
 import net.minecraft.client.Minecraft;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.function.Supplier;
 
+/**
+ * Состояние барьера одной сущности (полный снимок пулов, не дельта).
+ *
+ * seq — порядковый номер обновления для этой сущности (растёт на сервере при каждом изменении).
+ * snapshot — ответ на {@link BarrierResyncRequestPacket}: несёт текущий seq без инкремента.
+ * stacks — число наложенных стэков (для HUD).
+ */
 public record BarrierSyncPacket(
         int entityId,
+        int seq,
+        boolean snapshot,
         boolean add,
         int durationTicks,
         int totalMagic,
         int totalMagicMax,
         int totalPhys,
-        int totalPhysMax
-) {
+        int totalPhysMax,
+        int stacks
+) implements CoalescingMessage {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    @Override
+    public Object coalesceKey() {
+        return entityId; // полный снимок — внутри тика достаточно последнего по сущности
+    }
+
+    @Override
+    public Object mergeWith(Object previous) {
+        // если перезаписываем ответ на запрос снимка — сохраняем флаг, иначе клиент так и будет ждать снимок
+        if (!snapshot && previous instanceof BarrierSyncPacket prev && prev.snapshot) {
+            return new BarrierSyncPacket(entityId, seq, true, add, durationTicks,
+                    totalMagic, totalMagicMax, totalPhys, totalPhysMax, stacks);
+        }
+        return this;
+    }
+
     public static void encode(BarrierSyncPacket pkt, FriendlyByteBuf buf) {
         buf.writeInt(pkt.entityId);
+        buf.writeVarInt(pkt.seq);
+        buf.writeBoolean(pkt.snapshot);
         buf.writeBoolean(pkt.add);
         buf.writeInt(pkt.durationTicks);
         buf.writeInt(pkt.totalMagic);
         buf.writeInt(pkt.totalMagicMax);
         buf.writeInt(pkt.totalPhys);
         buf.writeInt(pkt.totalPhysMax);
+        buf.writeVarInt(pkt.stacks);
     }
     public static BarrierSyncPacket decode(FriendlyByteBuf buf) {
         return new BarrierSyncPacket(
                 buf.readInt(),
+                buf.readVarInt(),
                 buf.readBoolean(),
+                buf.readBoolean(),
+                buf.readInt(),
                 buf.readInt(),
                 buf.readInt(),
                 buf.readInt(),
                 buf.readInt(),
-                buf.readInt()
+                buf.readVarInt()
         );
     }
 
@@ -45,6 +80,17 @@ public record BarrierSyncPacket(
                 return; // на сервере — пропустить
             }
 
+            // пропуск/переупорядочивание — пакет не применяем, запрашиваем снимок только для этой сущности
+            switch (ClientBarrierData.acceptSequence(pkt.entityId, pkt.seq, pkt.snapshot)) {
+                case STALE:
+                    return;
+                case GAP:
+                    NetworkHandler.sendToServer(new BarrierResyncRequestPacket(pkt.entityId));
+                    return;
+                default:
+                    break;
+            }
+
             if (pkt.add) {
                 ClientBarrierData.add(
                         pkt.entityId,
@@ -52,14 +98,16 @@ public record BarrierSyncPacket(
                         pkt.totalMagic,
                         pkt.totalMagicMax,
                         pkt.totalPhys,
-                        pkt.totalPhysMax
+                        pkt.totalPhysMax,
+                        pkt.stacks
                 );
-                System.out.println("[BarrierSyncPacket] add for entity " + pkt.entityId + " dur=" + pkt.durationTicks
-                        + " magic=" + pkt.totalMagic + "/" + pkt.totalMagicMax
-                        + " phys=" + pkt.totalPhys + "/" + pkt.totalPhysMax);
+                LOGGER.debug("[BarrierSyncPacket] add for entity {} seq={} dur={} magic={}/{} phys={}/{}",
+                        pkt.entityId, pkt.seq, pkt.durationTicks,
+                        pkt.totalMagic, pkt.totalMagicMax, pkt.totalPhys, pkt.totalPhysMax);
             } else {
                 ClientBarrierData.remove(pkt.entityId);
-                System.out.println("[BarrierSyncPacket] remove for entity " + pkt.entityId);
+                ClientBarrierData.markEnded(pkt.entityId);
+                LOGGER.debug("[BarrierSyncPacket] remove for entity {} seq={}", pkt.entityId, pkt.seq);
             }
         });
         ctx.get().setPacketHandled(true);
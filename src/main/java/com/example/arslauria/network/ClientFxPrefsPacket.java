@@ -0,0 +1,44 @@
+package com.example.arslauria.network;
+
+import com.example.arslauria.effects.BarrierEffect;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Клиент → сервер: FX-предпочтения игрока. Отправляется при входе в мир и при перезагрузке клиентского конфига.
+ */
+public record ClientFxPrefsPacket(FxPreferences prefs) {
+    private static final FxPreferences.ParticleLevel[] LEVELS = FxPreferences.ParticleLevel.values();
+
+    public static void encode(ClientFxPrefsPacket pkt, FriendlyByteBuf buf) {
+        buf.writeBoolean(pkt.prefs.domes());
+        buf.writeByte(pkt.prefs.particles().ordinal());
+        buf.writeBoolean(pkt.prefs.reducedSounds());
+    }
+
+    public static ClientFxPrefsPacket decode(FriendlyByteBuf buf) {
+        boolean domes = buf.readBoolean();
+        int level = buf.readByte();
+        boolean reducedSounds = buf.readBoolean();
+        FxPreferences.ParticleLevel particles = level >= 0 && level < LEVELS.length
+                ? LEVELS[level] : FxPreferences.ParticleLevel.ALL;
+        return new ClientFxPrefsPacket(new FxPreferences(domes, particles, reducedSounds));
+    }
+
+    public static void handle(ClientFxPrefsPacket pkt, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            ServerPlayer sender = ctx.get().getSender();
+            if (sender == null) return;
+            FxPreferences previous = FxPreferences.of(sender);
+            FxPreferences.set(sender, pkt.prefs);
+            // пока купола были выключены, обновления чужих барьеров игроку не отправлялись
+            if (!previous.domes() && pkt.prefs.domes()) {
+                BarrierEffect.sendSnapshotsTrackedBy(sender);
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.arslauria.network;
+
+/**
+ * Сообщение, которое можно схлопывать в {@link OutboundBus}: в пределах одного тика
+ * для одного игрока остаётся только последнее сообщение с тем же (тип, ключ).
+ *
+ * Подходит для сообщений, несущих полное состояние (например, {@link BarrierSyncPacket}).
+ */
+public interface CoalescingMessage {
+    /** Ключ схлопывания внутри типа сообщения (например, id сущности). */
+    Object coalesceKey();
+
+    /**
+     * Слияние с ранее поставленным в очередь сообщением с тем же ключом.
+     * По умолчанию — last-write-wins.
+     */
+    default Object mergeWith(Object previous) {
+        return this;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.arslauria.network;
+
+import com.example.arslauria.Lauria;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FX-предпочтения клиента (приходят в {@link ClientFxPrefsPacket}) и их серверное хранилище.
+ *
+ * {@link OutboundBus} по ним решает, генерировать ли и отправлять ли игроку частицы, звуки и
+ * визуальные обновления барьеров. Пока клиент ничего не прислал — действуют {@link #DEFAULT}.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public record FxPreferences(boolean domes, ParticleLevel particles, boolean reducedSounds) {
+
+    public enum ParticleLevel {
+        ALL,     // все частицы
+        MINIMAL, // только основные (не косметические)
+        NONE;    // никаких частиц ArsLauria
+
+        public boolean allows(boolean cosmetic) {
+            return switch (this) {
+                case ALL -> true;
+                case MINIMAL -> !cosmetic;
+                case NONE -> false;
+            };
+        }
+    }
+
+    public static final FxPreferences DEFAULT = new FxPreferences(true, ParticleLevel.ALL, false);
+
+    private static final Map<UUID, FxPreferences> BY_PLAYER = new ConcurrentHashMap<>();
+
+    public static FxPreferences of(ServerPlayer player) {
+        return BY_PLAYER.getOrDefault(player.getUUID(), DEFAULT);
+    }
+
+    static void set(ServerPlayer player, FxPreferences prefs) {
+        BY_PLAYER.put(player.getUUID(), prefs);
+    }
+
+    /** Нужны ли игроку частицы; cosmetic — дополнительные (дым, вспышки), не основная частица эффекта. */
+    public boolean wantsParticles(boolean cosmetic) {
+        return particles.allows(cosmetic);
+    }
+
+    /** Нужен ли игроку звук; cosmetic — вторичный звук, дублирующий основной. */
+    public boolean wantsSound(boolean cosmetic) {
+        return !(reducedSounds && cosmetic);
+    }
+
+    /**
+     * Нужно ли игроку сообщение мода о сущности; self — сущность и есть этот игрок.
+     * Визуальные обновления барьеров чужих сущностей не нужны, если купола выключены.
+     */
+    public boolean wantsMessage(Object message, boolean self) {
+        if (self || domes) return true;
+        return !(message instanceof BarrierSyncPacket);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        BY_PLAYER.remove(event.getEntity().getUUID());
+    }
+}
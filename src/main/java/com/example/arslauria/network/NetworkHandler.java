@@ -1,13 +1,13 @@
 package com.example.arslauria.network;
 
 import com.example.arslauria.Lauria;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkRegistry;
-import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,7 +22,7 @@ import java.util.function.Supplier;
  */
 public final class NetworkHandler {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final String PROTOCOL_VERSION = "1";
+    private static final String PROTOCOL_VERSION = "4";
     private static SimpleChannel CHANNEL = null;
     private static int packetId = 0;
 
@@ -57,6 +57,24 @@ public final class NetworkHandler {
                 Optional.of(NetworkDirection.PLAY_TO_CLIENT)
         );
 
+        // BarrierResyncRequestPacket — от клиента к серверу (запрос снимка при пропуске seq)
+        CHANNEL.registerMessage(nextId(),
+                BarrierResyncRequestPacket.class,
+                BarrierResyncRequestPacket::encode,
+                BarrierResyncRequestPacket::decode,
+                BarrierResyncRequestPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_SERVER)
+        );
+
+        // ClientFxPrefsPacket — от клиента к серверу (FX-предпочтения игрока)
+        CHANNEL.registerMessage(nextId(),
+                ClientFxPrefsPacket.class,
+                ClientFxPrefsPacket::encode,
+                ClientFxPrefsPacket::decode,
+                ClientFxPrefsPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_SERVER)
+        );
+
         LOGGER.info("[NetworkHandler] channel & messages registered (last id={})", packetId - 1);
     }
 
@@ -71,6 +89,7 @@ public final class NetworkHandler {
 
     /**
      * Отправить сообщение всем, кто отслеживает сущность + самой сущности, если это игрок.
+     * Сообщение уходит через {@link OutboundBus} в конце текущего серверного тика.
      * Ничего не делает если канал не инициализирован.
      */
     public static void sendToTracking(LivingEntity entity, Object message) {
@@ -78,11 +97,12 @@ public final class NetworkHandler {
             LOGGER.warn("[NetworkHandler] sendToTracking called but CHANNEL==null; dropping message");
             return;
         }
-        CHANNEL.send(PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> entity), message);
+        OutboundBus.queueTracking(entity, message);
     }
 
     /**
      * Отправить сообщение конкретному серверному игроку.
+     * Сообщение уходит через {@link OutboundBus} в конце текущего серверного тика.
      * Ничего не делает если канал не инициализирован.
      */
     public static void sendToPlayer(ServerPlayer player, Object message) {
@@ -90,7 +110,28 @@ public final class NetworkHandler {
             LOGGER.warn("[NetworkHandler] sendToPlayer called but CHANNEL==null; dropping message");
             return;
         }
-        CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), message);
+        OutboundBus.queue(player, message);
+    }
+
+    /**
+     * Закодировать сообщение мода в vanilla-пакет (сервер → клиент). Используется {@link OutboundBus} при сбросе.
+     * Возвращает null если канал не инициализирован.
+     */
+    public static Packet<?> toVanillaPacket(Object message) {
+        if (CHANNEL == null) return null;
+        return CHANNEL.toVanillaPacket(message, NetworkDirection.PLAY_TO_CLIENT);
+    }
+
+    /**
+     * Отправить сообщение с клиента на сервер.
+     * Ничего не делает если канал не инициализирован.
+     */
+    public static void sendToServer(Object message) {
+        if (CHANNEL == null) {
+            LOGGER.warn("[NetworkHandler] sendToServer called but CHANNEL==null; dropping message");
+            return;
+        }
+        CHANNEL.sendToServer(message);
     }
 
     /**
@@ -102,9 +143,7 @@ public final class NetworkHandler {
             LOGGER.warn("[NetworkHandler] sendToAllInServerLevel called but CHANNEL==null; dropping message");
             return;
         }
-        for (ServerPlayer p : level.players()) {
-            CHANNEL.send(PacketDistributor.PLAYER.with(() -> p), message);
-        }
+        OutboundBus.queueLevel(level, message);
     }
 
     /**
@@ -0,0 +1,219 @@
+package com.example.arslauria.network;
+
+import com.example.arslauria.Lauria;
+import com.example.arslauria.mixin.ChunkMapAccessor;
+import com.example.arslauria.mixin.TrackedEntityAccessor;
+import net.minecraft.core.Holder;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.network.protocol.game.ClientboundSoundPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerPlayerConnection;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OutboundBus — единая исходящая шина ArsLauria (только серверный поток).
+ *
+ * Поведение:
+ *  - сообщения копятся по игрокам в течение тика;
+ *  - {@link CoalescingMessage} схлопываются по (тип, ключ) — побеждает последнее;
+ *  - в конце серверного тика очередь игрока уходит одним ClientboundBundlePacket.
+ *
+ * Сообщения мода кодируются в vanilla-пакет только при сбросе, поэтому перезаписанные
+ * в пределах тика сообщения не кодируются вообще.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class OutboundBus {
+    // лимит пакетов в одном bundle у vanilla (BundlerInfo.BUNDLE_SIZE_LIMIT)
+    private static final int MAX_BUNDLE_SIZE = 4096;
+    // радиус рассылки частиц как у ServerLevel#sendParticles (overrideLimiter=false)
+    private static final double PARTICLE_RANGE_SQ = 32.0 * 32.0;
+
+    private static final Map<ServerPlayer, PlayerQueue> QUEUES = new HashMap<>();
+
+    private OutboundBus() {}
+
+    private record MessageKey(Class<?> type, Object key) {}
+
+    private static final class PlayerQueue {
+        // порядок — по первой постановке ключа; значение — последнее сообщение (last-write-wins)
+        final LinkedHashMap<Object, Object> messages = new LinkedHashMap<>();
+    }
+
+    /**
+     * Поставить сообщение мода или vanilla-пакет в очередь игрока.
+     * CoalescingMessage схлопываются, остальные добавляются в конец.
+     */
+    public static void queue(ServerPlayer player, Object message) {
+        if (player == null || message == null) return;
+        PlayerQueue queue = QUEUES.computeIfAbsent(player, p -> new PlayerQueue());
+        if (message instanceof CoalescingMessage cm) {
+            MessageKey key = new MessageKey(message.getClass(), cm.coalesceKey());
+            Object previous = queue.messages.get(key);
+            queue.messages.put(key, previous == null ? message : cm.mergeWith(previous));
+        } else {
+            queue.messages.put(new Object(), message); // уникальный ключ — без схлопывания
+        }
+    }
+
+    /**
+     * Поставить сообщение в очередь всех игроков, отслеживающих сущность, и самой сущности (если это игрок).
+     * Отслеживающие — множество трекинга сущности в ChunkMap (как у PacketDistributor.TRACKING_ENTITY_AND_SELF):
+     * с учётом view-distance и загрузки чанков у игрока, а не по расстоянию.
+     */
+    public static void queueTracking(Entity entity, Object message) {
+        if (!(entity.level() instanceof ServerLevel level)) return;
+        if (entity instanceof ServerPlayer self && FxPreferences.of(self).wantsMessage(message, true)) {
+            queue(self, message);
+        }
+        for (ServerPlayerConnection connection : trackedBy(level, entity)) {
+            ServerPlayer p = connection.getPlayer();
+            if (p == entity || !FxPreferences.of(p).wantsMessage(message, false)) continue;
+            queue(p, message);
+        }
+    }
+
+    /** Отслеживает ли игрок сущность (сущность ему отправляется). */
+    public static boolean isTracking(ServerPlayer player, Entity entity) {
+        return entity.level() instanceof ServerLevel level && trackedBy(level, entity).contains(player.connection);
+    }
+
+    private static Set<ServerPlayerConnection> trackedBy(ServerLevel level, Entity entity) {
+        Object tracked = ((ChunkMapAccessor) level.getChunkSource().chunkMap).arslauria$getEntityMap().get(entity.getId());
+        return tracked == null ? Set.of() : ((TrackedEntityAccessor) tracked).arslauria$getSeenBy();
+    }
+
+    /** Поставить сообщение в очередь всех игроков уровня. */
+    public static void queueLevel(ServerLevel level, Object message) {
+        for (ServerPlayer p : level.players()) {
+            queue(p, message);
+        }
+    }
+
+    /**
+     * Есть ли рядом игрок, которому нужны такие частицы. Позволяет не генерировать частицы
+     * (случайные смещения и т.п.), если их всё равно никто не получит.
+     */
+    public static boolean anyoneWantsParticles(ServerLevel level, double x, double y, double z, boolean cosmetic) {
+        for (ServerPlayer p : level.players()) {
+            if (p.distanceToSqr(x, y, z) <= PARTICLE_RANGE_SQ && FxPreferences.of(p).wantsParticles(cosmetic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Аналог ServerLevel#sendParticles(particle, x, y, z, count, dx, dy, dz, speed) через шину.
+     * Игрокам, отключившим такие частицы (см. {@link FxPreferences}), пакет не отправляется.
+     *
+     * @param cosmetic дополнительные частицы (дым, вспышки), а не основная частица эффекта
+     */
+    public static void broadcastParticles(ServerLevel level, ParticleOptions particle,
+                                          double x, double y, double z, int count,
+                                          double dx, double dy, double dz, double speed,
+                                          boolean cosmetic) {
+        ClientboundLevelParticlesPacket pkt = null;
+        for (ServerPlayer p : level.players()) {
+            if (p.distanceToSqr(x, y, z) > PARTICLE_RANGE_SQ) continue;
+            if (!FxPreferences.of(p).wantsParticles(cosmetic)) continue;
+            if (pkt == null) {
+                pkt = new ClientboundLevelParticlesPacket(particle, false, x, y, z,
+                        (float) dx, (float) dy, (float) dz, (float) speed, count);
+            }
+            queue(p, pkt);
+        }
+    }
+
+    /**
+     * Аналог Level#playSound(null, x, y, z, sound, source, volume, pitch) через шину.
+     * Игрокам с уменьшенными звуками (см. {@link FxPreferences}) вторичные звуки не отправляются.
+     *
+     * @param cosmetic вторичный звук, дублирующий основной
+     */
+    public static void broadcastSound(ServerLevel level, @Nullable ServerPlayer except,
+                                      double x, double y, double z,
+                                      SoundEvent sound, SoundSource source, float volume, float pitch,
+                                      boolean cosmetic) {
+        double range = sound.getRange(volume);
+        double rangeSq = range * range;
+        ClientboundSoundPacket pkt = null;
+        for (ServerPlayer p : level.players()) {
+            if (p == except || p.distanceToSqr(x, y, z) > rangeSq) continue;
+            if (!FxPreferences.of(p).wantsSound(cosmetic)) continue;
+            if (pkt == null) {
+                Holder<SoundEvent> holder = BuiltInRegistries.SOUND_EVENT.wrapAsHolder(sound);
+                pkt = new ClientboundSoundPacket(holder, source, x, y, z, volume, pitch, level.random.nextLong());
+            }
+            queue(p, pkt);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        flush();
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer sp) {
+            QUEUES.remove(sp);
+        }
+    }
+
+    /** Отправить всё накопленное: один bundle на игрока. */
+    @SuppressWarnings("unchecked")
+    public static void flush() {
+        if (QUEUES.isEmpty()) return;
+
+        for (Iterator<Map.Entry<ServerPlayer, PlayerQueue>> it = QUEUES.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<ServerPlayer, PlayerQueue> entry = it.next();
+            ServerPlayer player = entry.getKey();
+            PlayerQueue queue = entry.getValue();
+            // старый объект игрока после респавна / отключения — очередь больше не нужна
+            if (player.connection == null || player.hasDisconnected() || player.isRemoved()) {
+                it.remove();
+                continue;
+            }
+            if (queue.messages.isEmpty()) continue;
+
+            List<Packet<ClientGamePacketListener>> packets = new ArrayList<>(queue.messages.size());
+            for (Object msg : queue.messages.values()) {
+                Packet<?> pkt = msg instanceof Packet<?> vanilla ? vanilla : NetworkHandler.toVanillaPacket(msg);
+                if (pkt != null) packets.add((Packet<ClientGamePacketListener>) pkt);
+            }
+            queue.messages.clear();
+
+            if (packets.size() == 1) {
+                player.connection.send(packets.get(0));
+                continue;
+            }
+            for (int from = 0; from < packets.size(); from += MAX_BUNDLE_SIZE) {
+                int to = Math.min(packets.size(), from + MAX_BUNDLE_SIZE);
+                player.connection.send(new ClientboundBundlePacket(packets.subList(from, to)));
+            }
+        }
+    }
+}
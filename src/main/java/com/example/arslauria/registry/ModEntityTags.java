@@ -0,0 +1,72 @@
+package com.example.arslauria.registry;
+
+import com.example.arslauria.Lauria;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.Holder;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.item.FallingBlockEntity;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Set;
+
+/**
+ * Теги типов сущностей для Impact (data/arslauria/tags/entity_types):
+ * <ul>
+ *   <li>{@code impact_watchable} — за такими сущностями Impact следит (по умолчанию оба тега ниже);</li>
+ *   <li>{@code impact_falling} — падающие блоки: короткий таймаут и наблюдение за точкой приземления;</li>
+ *   <li>{@code impact_mage_block} — статичные mage block: ждём их исчезновения.</li>
+ * </ul>
+ * Теги разворачиваются в identity-множества типов при загрузке датапаков (TagsUpdatedEvent),
+ * так что классификация — поиск в множестве без аллокаций. Пакам достаточно дописать свои типы в теги.
+ */
+@Mod.EventBusSubscriber(modid = Lauria.MOD_ID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class ModEntityTags {
+    public static final TagKey<EntityType<?>> IMPACT_WATCHABLE = tag("impact_watchable");
+    public static final TagKey<EntityType<?>> IMPACT_FALLING = tag("impact_falling");
+    public static final TagKey<EntityType<?>> IMPACT_MAGE_BLOCK = tag("impact_mage_block");
+
+    // до первой загрузки тегов — пустые; FallingBlockEntity распознаётся и без них
+    private static volatile Set<EntityType<?>> watchable = Set.of();
+    private static volatile Set<EntityType<?>> falling = Set.of();
+    private static volatile Set<EntityType<?>> mageBlock = Set.of();
+
+    private ModEntityTags() {}
+
+    public static boolean isImpactWatchable(Entity e) {
+        return e instanceof FallingBlockEntity || (e != null && watchable.contains(e.getType()));
+    }
+
+    public static boolean isImpactFalling(Entity e) {
+        return e instanceof FallingBlockEntity || (e != null && falling.contains(e.getType()));
+    }
+
+    public static boolean isImpactMageBlock(Entity e) {
+        return e != null && mageBlock.contains(e.getType());
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        RegistryAccess access = event.getRegistryAccess();
+        watchable = resolve(access, IMPACT_WATCHABLE);
+        falling = resolve(access, IMPACT_FALLING);
+        mageBlock = resolve(access, IMPACT_MAGE_BLOCK);
+    }
+
+    private static Set<EntityType<?>> resolve(RegistryAccess access, TagKey<EntityType<?>> key) {
+        Set<EntityType<?>> set = new ReferenceOpenHashSet<>();
+        for (Holder<EntityType<?>> holder : access.registryOrThrow(Registries.ENTITY_TYPE).getTagOrEmpty(key)) {
+            set.add(holder.value());
+        }
+        return set;
+    }
+
+    private static TagKey<EntityType<?>> tag(String path) {
+        return TagKey.create(Registries.ENTITY_TYPE, Lauria.prefix(path));
+    }
+}
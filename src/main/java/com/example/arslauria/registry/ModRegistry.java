@@ -33,6 +33,11 @@ public class ModRegistry {
     public static RegistryObject<SoundEvent> EXAMPLE_FAMILY = SOUNDS.register("example_sound", () -> makeSound("example_sound"));
     public static SpellSound EXAMPLE_SPELL_SOUND;
 
+    // собственные события звуков барьера и бласта — клиентский ClientSoundLimiter ограничивает только их,
+    // не трогая ванильные стекло и взрывы (см. sounds.json)
+    public static final RegistryObject<SoundEvent> BARRIER_BREAK = SOUNDS.register("barrier_break", () -> makeSound("barrier_break"));
+    public static final RegistryObject<SoundEvent> BLAST = SOUNDS.register("blast", () -> makeSound("blast"));
+
 
     static {
         EXAMPLE = ITEMS.register("star_hat", () -> new ExampleCosmetic(new Item.Properties()));
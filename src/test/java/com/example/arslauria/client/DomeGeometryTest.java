@@ -0,0 +1,170 @@
+package com.example.arslauria.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Генерация мешей купола без клиента: число вершин/квадов по формам и уровням детализации,
+ * обход наружу и внутренняя оболочка.
+ */
+class DomeGeometryTest {
+    private static final float THICKNESS = 0.05f;
+    private static final float EPS = 1e-4f;
+
+    @Test
+    void cubeHasSixQuads() {
+        DomeGeometry g = DomeGeometry.build(DomeGeometry.Shape.CUBE, 0, THICKNESS, false);
+        assertEquals(24, g.vertexCount);
+        assertEquals(6, quadCount(g));
+        assertArrayLengths(g);
+    }
+
+    @Test
+    void cubeIgnoresDetail() {
+        for (int detail = 0; detail <= DomeMeshCache.MAX_DETAIL; detail++) {
+            assertEquals(24, DomeGeometry.build(DomeGeometry.Shape.CUBE, detail, THICKNESS, false).vertexCount);
+        }
+    }
+
+    @Test
+    void sphereHasOneQuadPerIcosphereTriangle() {
+        for (int detail = 0; detail <= DomeMeshCache.MAX_DETAIL; detail++) {
+            DomeGeometry g = DomeGeometry.build(DomeGeometry.Shape.SPHERE, detail, THICKNESS, false);
+            int triangles = 20 << (2 * detail);
+            assertEquals(triangles, quadCount(g), "detail " + detail);
+            assertEquals(triangles * 4, g.vertexCount, "detail " + detail);
+            assertArrayLengths(g);
+        }
+    }
+
+    @Test
+    void hexHasThreeQuadsPerPanel() {
+        for (int detail = 0; detail <= DomeMeshCache.MAX_DETAIL; detail++) {
+            DomeGeometry g = DomeGeometry.build(DomeGeometry.Shape.HEX, detail, THICKNESS, false);
+            // панель на каждую вершину икосферы: 12 пятиугольников и 10 * (4^d - 1) шестиугольников
+            int panels = 10 * (1 << (2 * detail)) + 2;
+            assertEquals(panels, DomeGeometry.icosphere(detail).vertices().size(), "detail " + detail);
+            assertEquals(panels * 3, quadCount(g), "detail " + detail);
+            assertEquals(panels * 12, g.vertexCount, "detail " + detail);
+            assertArrayLengths(g);
+        }
+    }
+
+    @Test
+    void outerQuadsFaceOutward() {
+        for (DomeGeometry.Shape shape : DomeGeometry.Shape.values()) {
+            for (int detail = 0; detail <= DomeMeshCache.MAX_DETAIL; detail++) {
+                DomeGeometry g = DomeGeometry.build(shape, detail, THICKNESS, false);
+                for (int q = 0; q < quadCount(g); q++) {
+                    float[] out = fromCenter(g, q);
+                    String where = shape + " detail " + detail + " quad " + q;
+                    assertTrue(dot(windingNormal(g, q), out) > 0f, "winding of " + where);
+                    for (int i = 0; i < 4; i++) {
+                        assertTrue(dot(vertexNormal(g, q * 4 + i), out) > 0f, "normal of " + where);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void verticesStayInsideUnitCube() {
+        for (DomeGeometry.Shape shape : DomeGeometry.Shape.values()) {
+            DomeGeometry g = DomeGeometry.build(shape, 2, THICKNESS, true);
+            for (float p : g.positions) {
+                assertTrue(p >= -EPS && p <= 1f + EPS, shape + " position " + p);
+            }
+            for (float c : g.crack) {
+                assertTrue(c >= 0f && c < 1f, shape + " crack threshold " + c);
+            }
+        }
+    }
+
+    @Test
+    void innerShellMirrorsOuterShell() {
+        for (DomeGeometry.Shape shape : DomeGeometry.Shape.values()) {
+            for (int detail = 0; detail <= DomeMeshCache.MAX_DETAIL; detail++) {
+                DomeGeometry outer = DomeGeometry.build(shape, detail, THICKNESS, false);
+                DomeGeometry both = DomeGeometry.build(shape, detail, THICKNESS, true);
+                String where = shape + " detail " + detail;
+                assertEquals(outer.vertexCount * 2, both.vertexCount, where);
+                assertArrayLengths(both);
+
+                int outerQuads = quadCount(outer);
+                float scale = 1f - 2f * THICKNESS;
+                for (int q = 0; q < outerQuads; q++) {
+                    int inner = outerQuads + q;
+                    float[] out = fromCenter(both, inner);
+                    assertTrue(dot(windingNormal(both, inner), out) < 0f, "inner winding of " + where + " quad " + q);
+                    for (int i = 0; i < 4; i++) {
+                        // вершины внутренней стороны идут в обратном порядке
+                        int src = q * 4 + (3 - i);
+                        int dst = inner * 4 + i;
+                        for (int a = 0; a < 3; a++) {
+                            float expected = 0.5f + (outer.positions[src * 3 + a] - 0.5f) * scale;
+                            assertEquals(expected, both.positions[dst * 3 + a], EPS, "inner position of " + where);
+                            assertEquals(-outer.normals[src * 3 + a], both.normals[dst * 3 + a], EPS, "inner normal of " + where);
+                        }
+                        assertEquals(outer.crack[src], both.crack[dst], "crack threshold of " + where);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void generationIsDeterministic() {
+        DomeGeometry a = DomeGeometry.build(DomeGeometry.Shape.HEX, 1, THICKNESS, true);
+        DomeGeometry b = DomeGeometry.build(DomeGeometry.Shape.HEX, 1, THICKNESS, true);
+        assertEquals(a.vertexCount, b.vertexCount);
+        for (int i = 0; i < a.positions.length; i++) assertEquals(a.positions[i], b.positions[i]);
+        for (int i = 0; i < a.crack.length; i++) assertEquals(a.crack[i], b.crack[i]);
+    }
+
+    /* ======= помощники ======= */
+
+    private static int quadCount(DomeGeometry g) {
+        assertEquals(0, g.vertexCount % 4, "vertex count must be a multiple of 4");
+        return g.vertexCount / 4;
+    }
+
+    private static void assertArrayLengths(DomeGeometry g) {
+        assertEquals(g.vertexCount * 3, g.positions.length);
+        assertEquals(g.vertexCount * 3, g.normals.length);
+        assertEquals(g.vertexCount * 2, g.uvs.length);
+        assertEquals(g.vertexCount, g.crack.length);
+    }
+
+    /** Направление от центра unit-cube к центру квада. */
+    private static float[] fromCenter(DomeGeometry g, int quad) {
+        float[] c = new float[3];
+        for (int i = 0; i < 4; i++) {
+            for (int a = 0; a < 3; a++) c[a] += g.positions[(quad * 4 + i) * 3 + a] / 4f;
+        }
+        return new float[]{c[0] - 0.5f, c[1] - 0.5f, c[2] - 0.5f};
+    }
+
+    /** Нормаль квада по обходу (метод Ньюэлла — устойчив к повторённой вершине у треугольников). */
+    private static float[] windingNormal(DomeGeometry g, int quad) {
+        float[] n = new float[3];
+        for (int i = 0; i < 4; i++) {
+            int cur = (quad * 4 + i) * 3;
+            int next = (quad * 4 + (i + 1) % 4) * 3;
+            float[] p = g.positions;
+            n[0] += (p[cur + 1] - p[next + 1]) * (p[cur + 2] + p[next + 2]);
+            n[1] += (p[cur + 2] - p[next + 2]) * (p[cur] + p[next]);
+            n[2] += (p[cur] - p[next]) * (p[cur + 1] + p[next + 1]);
+        }
+        return n;
+    }
+
+    private static float[] vertexNormal(DomeGeometry g, int vertex) {
+        return new float[]{g.normals[vertex * 3], g.normals[vertex * 3 + 1], g.normals[vertex * 3 + 2]};
+    }
+
+    private static float dot(float[] a, float[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+}